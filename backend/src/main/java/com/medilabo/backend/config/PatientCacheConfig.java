@@ -0,0 +1,53 @@
+package com.medilabo.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Configuration class for the two-level cache of the patients looked up by ID.
+ * The local tier holds up to 'local-max-size' patients for 'local-ttl' in each backend instance; the shared Redis tier
+ * holds them for 'redis-ttl'. The local TTL bounds how long an instance that missed an eviction message serves a stale patient.
+ */
+@Component
+@ConfigurationProperties(prefix = "patients.cache")
+public class PatientCacheConfig {
+    private boolean enabled = true;
+    private Duration localTtl = Duration.ofSeconds(30);
+    private long localMaxSize = 10_000;
+    private Duration redisTtl = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getLocalTtl() {
+        return localTtl;
+    }
+
+    public void setLocalTtl(Duration localTtl) {
+        this.localTtl = localTtl;
+    }
+
+    public long getLocalMaxSize() {
+        return localMaxSize;
+    }
+
+    public void setLocalMaxSize(long localMaxSize) {
+        this.localMaxSize = localMaxSize;
+    }
+
+    public Duration getRedisTtl() {
+        return redisTtl;
+    }
+
+    public void setRedisTtl(Duration redisTtl) {
+        this.redisTtl = redisTtl;
+    }
+}
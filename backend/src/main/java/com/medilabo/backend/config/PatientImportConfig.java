@@ -0,0 +1,34 @@
+package com.medilabo.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Configuration class for the bulk patient import.
+ * Rows are checked for duplicates and inserted by chunks of 'batch-size' rows, each committed on its own;
+ * it should match spring.jpa.properties.hibernate.jdbc.batch_size. At most 'max-reported-errors' rejected rows
+ * are described in the import report, the others are only counted.
+ */
+@Component
+@ConfigurationProperties(prefix = "patients.import")
+public class PatientImportConfig {
+    private int batchSize = 500;
+    private int maxReportedErrors = 100;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+}
@@ -0,0 +1,32 @@
+package com.medilabo.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Configuration class for the patient name typeahead.
+ * A request without limit gets the default size; larger limits are capped to the maximum size.
+ */
+@Component
+@ConfigurationProperties(prefix = "patients.typeahead")
+public class PatientTypeaheadConfig {
+    private int defaultSize = 10;
+    private int maxSize = 50;
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public void setDefaultSize(int defaultSize) {
+        this.defaultSize = defaultSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+}
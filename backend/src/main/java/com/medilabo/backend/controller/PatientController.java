@@ -1,7 +1,12 @@
 package com.medilabo.backend.controller;
 
 import com.medilabo.backend.exceptions.EntityNotFoundException;
+import com.medilabo.backend.exceptions.PatientVersionConflictException;
 import com.medilabo.backend.model.Patient;
+import com.medilabo.backend.model.PatientImportResult;
+import com.medilabo.backend.model.PatientPage;
+import com.medilabo.backend.model.PatientSummary;
+import com.medilabo.backend.service.PatientImportService;
 import com.medilabo.backend.service.PatientService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -11,6 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,9 +32,16 @@ public class PatientController {
 
     private static final Logger logger = LoggerFactory.getLogger(PatientController.class);
 
+    // Response headers of the patient listing
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     @Autowired
     private PatientService patientService;
 
+    @Autowired
+    private PatientImportService patientImportService;
+
     /**
      * Adds a new patient to the system.
      *
@@ -55,12 +69,65 @@ public class PatientController {
     }
 
 
+    /**
+     * Imports patients in bulk from a CSV file, with a header row naming the columns
+     * (firstName, lastName, dateOfBirth, gender, and optionally postalAddress and phone).
+     * The body is read as a stream; patients that already exist are skipped and invalid rows reported.
+     *
+     * @param input The CSV content, in UTF-8.
+     * @return ResponseEntity with the report of the import, or BAD_REQUEST if the header is invalid.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<PatientImportResult> importCsv(InputStream input) {
+        logger.info("Received request to import patients from CSV");
+
+        return importPatients(() -> patientImportService.importCsv(input));
+    }
+
+    /**
+     * Imports patients in bulk from newline-delimited JSON, one patient object per line.
+     * The body is read as a stream; patients that already exist are skipped and invalid rows reported.
+     *
+     * @param input The NDJSON content, in UTF-8.
+     * @return ResponseEntity with the report of the import.
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<PatientImportResult> importNdjson(InputStream input) {
+        logger.info("Received request to import patients from NDJSON");
+
+        return importPatients(() -> patientImportService.importNdjson(input));
+    }
+
+    private ResponseEntity<PatientImportResult> importPatients(PatientImport patientImport) {
+        try {
+            PatientImportResult result = patientImport.run();
+            logger.info("Patients imported: {} of {} rows", result.imported(), result.read());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException | IOException e) {
+            // Invalid header, or body that could not be read
+            logger.warn("Invalid patient import: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+
+        } catch (RuntimeException e) {
+            logger.error("Error occurred while importing patients: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PatientImport {
+        PatientImportResult run() throws IOException;
+    }
+
+
     /**
      * Updates a patient in the system based on the provided ID.
      *
      * @param id The ID of the patient to be updated.
      * @param patient The updated patient object. The object should contain valid data.
-     * @return ResponseEntity with the updated patient and corresponding HTTP status.
+     * @return ResponseEntity with the updated patient and corresponding HTTP status,
+     * or CONFLICT if the patient was updated since the version sent was read.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Patient> updatePatient(@PathVariable String id, @Valid @RequestBody Patient patient) {
@@ -83,6 +150,11 @@ public class PatientController {
             logger.info("Patient with ID: {} updated successfully", id);
             return ResponseEntity.ok(updatedPatient);
 
+        } catch (PatientVersionConflictException e) {
+            // The client edited an outdated version of the patient
+            logger.warn("Patient with ID: {} was updated since the client read it", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+
         } catch (RuntimeException e) {
             // Log the error and return a bad request status
             logger.error("Error occurred while updating patient with ID: {}", id, e);
@@ -91,6 +163,14 @@ public class PatientController {
         }
     }
 
+    /**
+     * Retrieves a patient by ID, with its version as a strong ETag.
+     * Spring answers NOT_MODIFIED without body when the If-None-Match header holds the current ETag.
+     *
+     * @param id The ID of the patient to fetch.
+     * @return ResponseEntity with the patient and its ETag, NOT_MODIFIED if the client copy is current,
+     * or NOT_FOUND if the patient does not exist.
+     */
     @GetMapping("/{id}")
     public ResponseEntity<Patient> getPatientById(@PathVariable String id) {
         logger.info("Received request to fetch patient with ID: {}", id);
@@ -98,7 +178,9 @@ public class PatientController {
         try {
             Optional<Patient> patient = patientService.getPatientById(id);
             if (patient.isPresent()) {
-                return ResponseEntity.ok(patient.get());
+                return ResponseEntity.ok()
+                        .eTag(String.valueOf(patient.get().getVersion()))
+                        .body(patient.get());
             } else {
                 logger.warn("Patient with ID: {} not found", id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
@@ -112,26 +194,42 @@ public class PatientController {
 
 
     /**
-     * Retrieves all patients from the system.
+     * Retrieves one page of patients, sorted by a sort key then by ID.
+     * The cursor of the next page is returned in the X-Next-Cursor header, absent on the last page,
+     * and the total number of patients in the X-Total-Count header when requested.
      *
-     * @return ResponseEntity with a list of all patients and corresponding HTTP status.
+     * @param sort The sort key: id (default), lastName, firstName or dateOfBirth.
+     * @param direction The sort direction: asc (default) or desc.
+     * @param after The X-Next-Cursor of the previous page, with the same sort, to read the following patients.
+     * @param limit The maximum number of patients to return.
+     * @param count Whether to return the total number of patients, which costs a scan of the table.
+     * @return ResponseEntity with the page of patients and corresponding HTTP status, NO_CONTENT if the page is empty,
+     * or BAD_REQUEST if a parameter is invalid.
      */
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        logger.info("Received request to fetch all patients");
+    public ResponseEntity<List<Patient>> getPatients(@RequestParam(required = false) String sort,
+                                                     @RequestParam(required = false) String direction,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(defaultValue = "false") boolean count) {
+        logger.info("Received request to fetch a page of patients sorted by {} {}", sort, direction);
 
         try {
-            // Retrieve all patients
-            List<Patient> patients = patientService.getAll();
+            PatientPage page = patientService.getPage(sort, direction, after, limit, count);
 
-            // Log the number of patients found
-            if (patients.isEmpty()) {
-                logger.warn("No patients found in the system");
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(patients);  // 204 No Content if list is empty
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(page.patients().isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            if (page.totalCount() != null) {
+                response.header(TOTAL_COUNT_HEADER, String.valueOf(page.totalCount()));
             }
+            return response.body(page.patients());
 
-            logger.info("Fetched {} patients", patients.size());
-            return ResponseEntity.ok(patients);
+        } catch (IllegalArgumentException e) {
+            // Invalid sort, direction, cursor or limit
+            logger.warn("Invalid patient page request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
 
         } catch (RuntimeException e) {
             // Log the error and return a 500 status in case of a server-side error
@@ -186,6 +284,33 @@ public class PatientController {
     }
 
 
+    /**
+     * Retrieves the first patients whose name starts with the typed text, for a typeahead.
+     *
+     * @param q The typed text: a last name prefix, optionally followed by a first name prefix. Case-insensitive.
+     * @param limit The maximum number of matches to return.
+     * @return ResponseEntity with the summaries of the matching patients, ordered by name,
+     * or BAD_REQUEST if the query is blank or the limit is invalid.
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<PatientSummary>> typeahead(@RequestParam String q,
+                                                          @RequestParam(required = false) Integer limit) {
+        logger.debug("Received typeahead request: {}", q);
+
+        try {
+            return ResponseEntity.ok(patientService.typeahead(q, limit));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid typeahead request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+
+        } catch (RuntimeException e) {
+            logger.error("Error occurred during typeahead for query: {}", q, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+
     /**
      * Deletes a patient from the system based on the provided ID.
      *
@@ -0,0 +1,65 @@
+package com.medilabo.backend.event;
+
+import com.medilabo.backend.service.PatientCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+
+/**
+ * Evicts the patients from the patient cache when they are updated or deleted.
+ * The instance that made the change evicts both tiers once the transaction commits, before the event is relayed
+ * to the other services, so that they never read the former patient from the cache. The other backend instances
+ * evict their local tier when they receive the event from Redis.
+ */
+@Component
+public class PatientCacheInvalidator implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientCacheInvalidator.class);
+
+    @Autowired
+    private PatientCacheService patientCacheService;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evict(PatientEvent event) {
+        patientCacheService.evict(Long.valueOf(event.patientId()));
+    }
+
+    /**
+     * Subscribes to the patient events once the application is ready.
+     * The container keeps retrying the subscription if Redis is unreachable.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        listenerContainer.addMessageListener(this,
+                List.of(ChannelTopic.of(PatientEvent.PATIENT_UPDATED), ChannelTopic.of(PatientEvent.PATIENT_DELETED)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String patientId = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            patientCacheService.evictLocal(Long.valueOf(patientId));
+            logger.debug("Evicted patient ID: {} from the local cache", patientId);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignored patient event with invalid ID: {}", patientId);
+        }
+    }
+}
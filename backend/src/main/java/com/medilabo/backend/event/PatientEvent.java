@@ -0,0 +1,22 @@
+package com.medilabo.backend.event;
+
+/**
+ * Application event raised when a patient is updated or deleted.
+ * Relayed to the other services once the surrounding transaction has committed.
+ *
+ * @param channel the Redis channel the event is published on
+ * @param patientId the ID of the patient concerned
+ */
+public record PatientEvent(String channel, String patientId) {
+
+    public static final String PATIENT_UPDATED = "patient-updated";
+    public static final String PATIENT_DELETED = "patient-deleted";
+
+    public static PatientEvent updated(Long patientId) {
+        return new PatientEvent(PATIENT_UPDATED, String.valueOf(patientId));
+    }
+
+    public static PatientEvent deleted(String patientId) {
+        return new PatientEvent(PATIENT_DELETED, patientId);
+    }
+}
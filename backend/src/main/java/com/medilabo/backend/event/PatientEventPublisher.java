@@ -0,0 +1,33 @@
+package com.medilabo.backend.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+
+/**
+ * Publishes patient events on Redis so that dependent services (e.g. risklevel) can refresh their data.
+ * Events are sent after the transaction commits, so subscribers never read the patient before the change is visible.
+ * A publication failure is logged and never fails the patient operation.
+ */
+@Component
+public class PatientEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientEventPublisher.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(PatientEvent event) {
+        try {
+            redisTemplate.convertAndSend(event.channel(), event.patientId());
+            logger.debug("Published {} for patient ID: {}", event.channel(), event.patientId());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to publish {} for patient ID: {}", event.channel(), event.patientId(), e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.medilabo.backend.exceptions;
+
+public class PatientVersionConflictException extends RuntimeException {
+    public PatientVersionConflictException(String message) {
+        super(message);
+    }
+
+    public PatientVersionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -8,13 +8,30 @@ import lombok.Data;
 
 
 @Entity
-@Table(name = "patients") // Table SQL
+// A patient is identified by their name and date of birth: the unique index rejects duplicates, even from concurrent creates.
+// It also serves the exact name lookups and the name prefix search, in its (last name, first name, date of birth) order.
+// The other indexes serve the sorts of the patient listing; InnoDB appends the ID to them, which breaks ties
+@Table(name = "patients", uniqueConstraints = {
+        @UniqueConstraint(name = Patient.NAME_CONSTRAINT, columnNames = {"last_name", "first_name", "date_of_birth"})
+}, indexes = {
+        @Index(name = "idx_patients_last_name", columnList = "last_name"),
+        @Index(name = "idx_patients_first_name", columnList = "first_name"),
+        @Index(name = "idx_patients_date_of_birth", columnList = "date_of_birth")
+})
 @Data
 public class Patient {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    public static final String NAME_CONSTRAINT = "uk_patients_name_dob";
+
+    // IDs are allocated by blocks of 50 from the patient_id_sequence table rather than by the auto-increment column,
+    // so that Hibernate knows them before inserting and can batch the inserts; see PatientIdSequenceInitializer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;  // Remplacer par un Long auto-généré
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "patient_id")
+    @TableGenerator(name = "patient_id", table = "patient_id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "patients", allocationSize = Patient.ID_ALLOCATION_SIZE)
+    private Long id;
 
     @NotNull
     @Size(min = 1, max = 50)
@@ -36,4 +53,9 @@ public class Patient {
 
     @Pattern(regexp = "^\\+?[0-9. ()-]{7,25}$")
     private String phone;
+
+    // Incremented on every update; exposed as the ETag of the patient. Existing rows start at 0
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.medilabo.backend.model;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Position of the last patient of a page in the patient listing: the sort it was read with, its sort key
+ * and its ID. Encoded as an opaque URL-safe token for clients.
+ *
+ * @param sort the sort key of the listing
+ * @param direction the direction of the listing
+ * @param id the ID of the patient
+ * @param value the value of the sort key of the patient, or null when sorting by ID
+ */
+public record PatientCursor(PatientSort sort, Sort.Direction direction, long id, String value) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Builds the cursor following a patient.
+     *
+     * @param sort the sort key of the listing
+     * @param direction the direction of the listing
+     * @param patient the last patient of the page
+     * @return the cursor
+     */
+    public static PatientCursor of(PatientSort sort, Sort.Direction direction, Patient patient) {
+        String value = switch (sort) {
+            case ID -> null;
+            case LAST_NAME -> patient.getLastName();
+            case FIRST_NAME -> patient.getFirstName();
+            case DATE_OF_BIRTH -> patient.getDateOfBirth();
+        };
+        return new PatientCursor(sort, direction, patient.getId(), value);
+    }
+
+    /**
+     * Returns the keyset position of the patients following this cursor.
+     *
+     * @return the scroll position
+     */
+    public KeysetScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (sort != PatientSort.ID) {
+            keys.put(sort.getProperty(), value);
+        }
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+
+    public String encode() {
+        String token = sort.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token, checking it was issued for the requested sort.
+     *
+     * @param token the token, or null
+     * @param sort the requested sort key
+     * @param direction the requested direction
+     * @return the cursor, or null if there is no token
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    public static PatientCursor decode(String token, PatientSort sort, Sort.Direction direction) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        if (parts.length != 4 || !parts[0].equals(sort.name()) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Invalid cursor for this sort: " + token);
+        }
+
+        try {
+            return new PatientCursor(sort, direction, Long.parseLong(parts[2]), sort == PatientSort.ID ? null : parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.medilabo.backend.model;
+
+import java.util.List;
+
+
+/**
+ * Report of a bulk patient import.
+ *
+ * @param read the number of rows read
+ * @param imported the number of patients inserted
+ * @param duplicates the number of rows skipped as a patient with the same first name, last name and date of birth
+ * already exists, or appears earlier in the file
+ * @param rejected the number of rows rejected as malformed, invalid or failing to insert
+ * @param errors the description of the first rejected rows, with their line numbers
+ */
+public record PatientImportResult(long read, long imported, long duplicates, long rejected, List<String> errors) {
+}
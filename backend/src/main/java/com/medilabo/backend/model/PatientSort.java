@@ -0,0 +1,55 @@
+package com.medilabo.backend.model;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+
+
+/**
+ * Sort keys of the patient listing. Ties are broken by ID, so that the order, and the keyset cursor, are total.
+ */
+public enum PatientSort {
+    ID("id"),
+    LAST_NAME("lastName"),
+    FIRST_NAME("firstName"),
+    DATE_OF_BIRTH("dateOfBirth");
+
+    private final String property;
+
+    PatientSort(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Builds the sort of the listing, followed by the ID in the same direction.
+     *
+     * @param direction the direction of the sort
+     * @return the sort
+     */
+    public Sort toSort(Sort.Direction direction) {
+        return this == ID ? Sort.by(direction, "id") : Sort.by(direction, property, "id");
+    }
+
+    /**
+     * Finds a sort key by its property name, case-insensitively.
+     *
+     * @param property the property name, or null for the default sort by ID
+     * @return the sort key
+     * @throws IllegalArgumentException if the property is not a sort key
+     */
+    public static PatientSort of(String property) {
+        if (property == null || property.isEmpty()) {
+            return ID;
+        }
+        for (PatientSort sort : values()) {
+            if (sort.property.toLowerCase(Locale.ROOT).equals(property.toLowerCase(Locale.ROOT))) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Invalid sort key: " + property);
+    }
+}
@@ -0,0 +1,14 @@
+package com.medilabo.backend.model;
+
+
+/**
+ * Lightweight view of a patient, returned by the name typeahead.
+ * Only these columns are selected, instead of the whole patient.
+ *
+ * @param id the ID of the patient
+ * @param firstName the first name of the patient
+ * @param lastName the last name of the patient
+ * @param dateOfBirth the date of birth of the patient, to tell apart patients with the same name
+ */
+public record PatientSummary(Long id, String firstName, String lastName, String dateOfBirth) {
+}
@@ -0,0 +1,38 @@
+package com.medilabo.backend.repository;
+
+import com.medilabo.backend.model.Patient;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Moves the patient ID sequence past the existing patients at startup, before any patient is inserted.
+ * The patients created before the table-based IDs were numbered by the auto-increment column, which the sequence
+ * table knows nothing about. Hibernate's pooled optimizer hands out the block of IDs ending at the stored value,
+ * so the value is moved to at least the highest ID plus a whole block. Never moves the sequence back.
+ * Runs once Hibernate has created the sequence table.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PatientIdSequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientIdSequenceInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void initialize() {
+        int updated = jdbcTemplate.update("""
+                INSERT INTO patient_id_sequence (sequence_name, next_val)
+                SELECT 'patients', COALESCE(MAX(id), 0) + ? + 1 FROM patients
+                ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))
+                """, Patient.ID_ALLOCATION_SIZE);
+        logger.info("Patient ID sequence checked ({} row(s) changed)", updated);
+    }
+}
@@ -2,18 +2,47 @@ package com.medilabo.backend.repository;
 
 
 import com.medilabo.backend.model.Patient;
+import com.medilabo.backend.model.PatientSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
-    Optional<Patient> findByFirstNameAndLastName(String firstName, String lastName);
+    // Patients may share a name; a single result would fail on homonyms
+    List<Patient> findByFirstNameAndLastName(String firstName, String lastName);
 
+    // Served by the unique name index
     Optional<Patient> findByFirstNameAndLastNameAndDateOfBirth(String firstName, String lastName, String dateOfBirth);
 
     Optional<Patient> getPatientById(Long id);
+
+    /**
+     * Reads a window of patients in the given order, following a keyset position.
+     * The position filters on the sort keys instead of skipping rows, so every page costs the same.
+     */
+    Window<Patient> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads the summaries of the patients whose last name and first name start with the given prefixes.
+     * LIKE 'prefix%' is a range of the name index; the comparison follows the column collation,
+     * case-insensitive with the MySQL defaults, so the columns are not wrapped in LOWER() which would defeat the index.
+     */
+    List<PatientSummary> findByLastNameStartingWithAndFirstNameStartingWith(String lastNamePrefix, String firstNamePrefix,
+                                                                           Sort sort, Limit limit);
+
+    /**
+     * Reads the summaries of the patients with one of the given last names, to detect the duplicates of a whole
+     * chunk of imported patients in a single query served by the name index.
+     */
+    List<PatientSummary> findByLastNameIn(Collection<String> lastNames);
 }
\ No newline at end of file
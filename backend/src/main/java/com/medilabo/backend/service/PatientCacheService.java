@@ -0,0 +1,18 @@
+package com.medilabo.backend.service;
+
+
+import com.medilabo.backend.model.Patient;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+@Service
+public interface PatientCacheService {
+
+    Optional<Patient> getPatientById(Long id, Function<Long, Optional<Patient>> loader);
+
+    void evict(Long id);
+
+    void evictLocal(Long id);
+}
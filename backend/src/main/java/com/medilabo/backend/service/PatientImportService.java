@@ -0,0 +1,16 @@
+package com.medilabo.backend.service;
+
+
+import com.medilabo.backend.model.PatientImportResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Service
+public interface PatientImportService {
+
+    PatientImportResult importCsv(InputStream input) throws IOException;
+
+    PatientImportResult importNdjson(InputStream input) throws IOException;
+}
@@ -2,6 +2,8 @@ package com.medilabo.backend.service;
 
 
 import com.medilabo.backend.model.Patient;
+import com.medilabo.backend.model.PatientPage;
+import com.medilabo.backend.model.PatientSummary;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,10 +16,12 @@ public interface PatientService {
 
     Patient update (Patient patient);
 
-    List<Patient> getAll ();
+    PatientPage getPage(String sort, String direction, String after, Integer limit, boolean count);
 
     Optional<Patient> findOneByFirstNameAndLastName(String firstName, String lastName);
 
+    List<PatientSummary> typeahead(String query, Integer limit);
+
     void delete (String id);
 
     Optional<Patient> getPatientById(String id);
@@ -0,0 +1,237 @@
+package com.medilabo.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medilabo.backend.config.PatientCacheConfig;
+import com.medilabo.backend.model.Patient;
+import com.medilabo.backend.service.PatientCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+
+/**
+ * Service implementation of a two-level read-through cache of the patients looked up by ID.
+ * The local tier is a Caffeine cache in each backend instance; the shared tier is Redis, so a patient loaded by
+ * one instance is a Redis hit for the others. Patients that do not exist are not cached.
+ * As in the notes cache of the note service, a Redis entry is stored next to a generation counter incremented
+ * by every eviction, and a reader only stores the patient it loaded if the generation did not change since its miss.
+ * Evicting a key of the local tier waits for a load of that key in progress, so a stale load is dropped too.
+ * The local tier holds the patients serialized, as Redis does: every lookup gets its own Patient instance,
+ * so a caller changing the patient it received never alters what the next callers read.
+ * Lookups are counted in the "medilabo.patients.cache" counter, tagged with the tier and the result (hit or miss).
+ * Redis failures are logged and the patient read from MySQL: the cache never fails a lookup.
+ */
+@Service
+public class PatientCacheServiceImpl implements PatientCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientCacheServiceImpl.class);
+
+    public static final String COUNTER_NAME = "medilabo.patients.cache";
+
+    // Stores the entry only if the generation is still the one observed on the miss ('' when absent)
+    private static final RedisScript<Long> FILL = RedisScript.of("""
+            local generation = redis.call('GET', KEYS[2])
+            if (generation or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // Bumps the generation and drops the entry in one step
+    private static final RedisScript<Long> EVICT = RedisScript.of("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final PatientCacheConfig patientCacheConfig;
+    // Patients serialized as JSON, by ID
+    private final Cache<Long, String> localCache;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    @Autowired
+    public PatientCacheServiceImpl(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                   PatientCacheConfig patientCacheConfig, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.patientCacheConfig = patientCacheConfig;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(patientCacheConfig.getLocalMaxSize())
+                .expireAfterWrite(patientCacheConfig.getLocalTtl())
+                .build();
+
+        this.localHits = counter(meterRegistry, "local", "hit");
+        this.localMisses = counter(meterRegistry, "local", "miss");
+        this.redisHits = counter(meterRegistry, "redis", "hit");
+        this.redisMisses = counter(meterRegistry, "redis", "miss");
+        Gauge.builder("medilabo.patients.cache.size", localCache, Cache::estimatedSize)
+                .description("Patients held in the local tier of the patient cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached patient, looking up the local tier, then Redis, then the loader.
+     *
+     * @param id the ID of the patient
+     * @param loader reads the patient from MySQL, called on a miss of both tiers only
+     * @return an Optional containing the patient if it exists, otherwise empty
+     */
+    @Override
+    public Optional<Patient> getPatientById(Long id, Function<Long, Optional<Patient>> loader) {
+        if (!patientCacheConfig.isEnabled() || id == null) {
+            return loader.apply(id);
+        }
+
+        String cached = localCache.getIfPresent(id);
+        if (cached != null) {
+            localHits.increment();
+            return Optional.ofNullable(deserialize(cached, id));
+        }
+        localMisses.increment();
+
+        // Not stored when null, so a patient created later is found
+        AtomicReference<Patient> loaded = new AtomicReference<>();
+        String value = localCache.get(id, key -> loadShared(key, loader)
+                .map(patient -> {
+                    loaded.set(patient);
+                    return serialize(patient);
+                })
+                .orElse(null));
+        // The caller that ran the load gets the patient it loaded, callers that waited for it their own copy
+        return loaded.get() != null
+                ? Optional.of(loaded.get())
+                : Optional.ofNullable(value).map(v -> deserialize(v, id));
+    }
+
+    /**
+     * Drops a patient from both tiers, typically once its update or deletion is committed.
+     *
+     * @param id the ID of the patient
+     */
+    @Override
+    public void evict(Long id) {
+        if (!patientCacheConfig.isEnabled() || id == null) {
+            return;
+        }
+
+        evictLocal(id);
+        try {
+            redisTemplate.execute(EVICT, List.of(entryKey(id), generationKey(id)),
+                    String.valueOf(patientCacheConfig.getRedisTtl().toMillis()));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to evict the patient cache for patient ID: {}", id, e);
+        }
+    }
+
+    /**
+     * Drops a patient from the local tier only, when another instance changed it.
+     *
+     * @param id the ID of the patient
+     */
+    @Override
+    public void evictLocal(Long id) {
+        if (id != null) {
+            localCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Reads the patient from Redis, or from the loader on a miss, storing it in Redis unless it was evicted meanwhile.
+     * The entry and the generation are read in a single round trip.
+     */
+    private Optional<Patient> loadShared(Long id, Function<Long, Optional<Patient>> loader) {
+        String entryKey = entryKey(id);
+        String generationKey = generationKey(id);
+
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(List.of(entryKey, generationKey));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read the patient cache for patient ID: {}", id, e);
+            return loader.apply(id);
+        }
+
+        Patient cached = values == null || values.get(0) == null ? null : deserialize(values.get(0), id);
+        if (cached != null) {
+            redisHits.increment();
+            return Optional.of(cached);
+        }
+        redisMisses.increment();
+
+        Optional<Patient> patient = loader.apply(id);
+        if (patient.isPresent() && values != null) {
+            fill(entryKey, generationKey, values.get(1) == null ? "" : values.get(1), patient.get());
+        }
+        return patient;
+    }
+
+    private void fill(String entryKey, String generationKey, String generation, Patient patient) {
+        String value = serialize(patient);
+        if (value == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(FILL, List.of(entryKey, generationKey),
+                    generation, value, String.valueOf(patientCacheConfig.getRedisTtl().toMillis()));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to fill the patient cache for patient ID: {}", patient.getId(), e);
+        }
+    }
+
+    private String serialize(Patient patient) {
+        try {
+            return objectMapper.writeValueAsString(patient);
+        } catch (JsonProcessingException e) {
+            // Not cached then, the patient is read from MySQL again
+            logger.warn("Failed to serialize the patient ID: {}", patient.getId(), e);
+            return null;
+        }
+    }
+
+    private Patient deserialize(String value, Long id) {
+        try {
+            return objectMapper.readValue(value, Patient.class);
+        } catch (JsonProcessingException e) {
+            // An unreadable entry, e.g. from a former Patient model, is treated as a miss and overwritten
+            logger.warn("Failed to read the cached patient ID: {}", id, e);
+            return null;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder(COUNTER_NAME)
+                .description("Lookups of the patient cache")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String entryKey(Long id) {
+        return "patients:" + id;
+    }
+
+    private static String generationKey(Long id) {
+        return "patients:" + id + ":generation";
+    }
+}
@@ -0,0 +1,261 @@
+package com.medilabo.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.backend.config.PatientImportConfig;
+import com.medilabo.backend.exceptions.ValidationException;
+import com.medilabo.backend.model.Patient;
+import com.medilabo.backend.model.PatientImportResult;
+import com.medilabo.backend.model.PatientSummary;
+import com.medilabo.backend.repository.PatientRepository;
+import com.medilabo.backend.service.PatientImportService;
+import com.medilabo.backend.util.ConstraintViolations;
+import com.medilabo.backend.util.CsvPatientReader;
+import com.medilabo.backend.util.NdjsonPatientReader;
+import com.medilabo.backend.util.PatientImportReader;
+import com.medilabo.backend.util.PatientValidationService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Service implementation of the bulk patient import.
+ * The input is read as a stream, one row at a time, and processed by chunks of 'patients.import.batch-size' rows:
+ * the rows are validated, the duplicates of the whole chunk are found with a single query on the last names,
+ * and the new patients are inserted in JDBC batches, their IDs being allocated by blocks from the sequence table.
+ * Each chunk is committed on its own and the persistence context cleared, so memory stays flat whatever the
+ * size of the file, and a chunk failing to insert does not undo the previous ones.
+ * Names are compared case-insensitively. The collation of the patients table also ignores accents and trailing spaces,
+ * so the unique name index may still reject a row; the chunk is then inserted row by row.
+ */
+@Service
+public class PatientImportServiceImpl implements PatientImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientImportServiceImpl.class);
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientValidationService patientValidationService;
+
+    @Autowired
+    private PatientImportConfig patientImportConfig;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PatientImportServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports patients from CSV, with a header row naming the columns.
+     *
+     * @param input the UTF-8 CSV content
+     * @return the report of the import
+     * @throws IllegalArgumentException if the header is missing or lacks a required column
+     * @throws IOException if the input cannot be read
+     */
+    @Override
+    public PatientImportResult importCsv(InputStream input) throws IOException {
+        try (PatientImportReader reader = new CsvPatientReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return importPatients(reader);
+        }
+    }
+
+    /**
+     * Imports patients from newline-delimited JSON, one patient object per line.
+     *
+     * @param input the UTF-8 NDJSON content
+     * @return the report of the import
+     * @throws IOException if the input cannot be read
+     */
+    @Override
+    public PatientImportResult importNdjson(InputStream input) throws IOException {
+        try (PatientImportReader reader = new NdjsonPatientReader(new InputStreamReader(input, StandardCharsets.UTF_8), objectMapper)) {
+            return importPatients(reader);
+        }
+    }
+
+    private PatientImportResult importPatients(PatientImportReader reader) throws IOException {
+        Report report = new Report(patientImportConfig.getMaxReportedErrors());
+        List<Row> chunk = new ArrayList<>(patientImportConfig.getBatchSize());
+
+        while (true) {
+            Patient patient;
+            try {
+                patient = reader.next();
+            } catch (IllegalArgumentException e) {
+                report.read++;
+                report.reject(reader.getLineNumber(), e.getMessage());
+                continue;
+            }
+            if (patient == null) {
+                break;
+            }
+            report.read++;
+
+            try {
+                patientValidationService.validatePatient(patient);
+                patientValidationService.validateFormats(patient);
+            } catch (ValidationException e) {
+                report.reject(reader.getLineNumber(), e.getMessage());
+                continue;
+            }
+
+            chunk.add(new Row(reader.getLineNumber(), patient));
+            if (chunk.size() == patientImportConfig.getBatchSize()) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+
+        logger.info("Patient import done: {} read, {} imported, {} duplicates, {} rejected",
+                report.read, report.imported, report.duplicates, report.rejected);
+        return new PatientImportResult(report.read, report.imported, report.duplicates, report.rejected, report.errors);
+    }
+
+    /**
+     * Inserts the patients of a chunk that do not exist yet, in one transaction.
+     * If the unique name index rejects one of them, e.g. an accent variant of an existing name or a patient created
+     * concurrently, the chunk is rolled back and inserted again row by row, the rejected rows counting as duplicates.
+     */
+    private void importChunk(List<Row> chunk, Report report) {
+        Set<String> lastNames = new HashSet<>();
+        for (Row row : chunk) {
+            lastNames.add(row.patient().getLastName());
+        }
+
+        try {
+            // Existing patients sharing a last name with the chunk, read in one query; the previous chunks are
+            // committed, so it finds the duplicates of earlier rows of the file too
+            Set<String> existingKeys = new HashSet<>();
+            for (PatientSummary summary : patientRepository.findByLastNameIn(lastNames)) {
+                existingKeys.add(key(summary.firstName(), summary.lastName(), summary.dateOfBirth()));
+            }
+
+            List<Row> rows = new ArrayList<>(chunk.size());
+            Set<String> chunkKeys = new HashSet<>();
+            for (Row row : chunk) {
+                Patient patient = row.patient();
+                String key = key(patient.getFirstName(), patient.getLastName(), patient.getDateOfBirth());
+                if (!existingKeys.contains(key) && chunkKeys.add(key)) {
+                    rows.add(row);
+                }
+            }
+            report.duplicates += chunk.size() - rows.size();
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    patientRepository.saveAll(rows.stream().map(Row::patient).toList());
+                    // Sends the batched inserts, then detaches the patients so the context does not grow across chunks
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                report.imported += rows.size();
+                logger.debug("Imported {} patients from lines {} to {}", rows.size(),
+                        chunk.get(0).lineNumber(), chunk.get(chunk.size() - 1).lineNumber());
+
+            } catch (DataIntegrityViolationException e) {
+                if (!ConstraintViolations.violates(e, Patient.NAME_CONSTRAINT)) {
+                    throw e;
+                }
+                logger.debug("Duplicate patient in lines {} to {}, inserting them one by one",
+                        chunk.get(0).lineNumber(), chunk.get(chunk.size() - 1).lineNumber());
+                for (Row row : rows) {
+                    importRow(row, report);
+                }
+            }
+
+        } catch (DataAccessException e) {
+            // The chunk was rolled back: all its rows are rejected
+            logger.error("Failed to import the patients from lines {} to {}",
+                    chunk.get(0).lineNumber(), chunk.get(chunk.size() - 1).lineNumber(), e);
+            for (Row row : chunk) {
+                report.reject(row.lineNumber(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Inserts a single patient in its own transaction, after its chunk was rolled back.
+     */
+    private void importRow(Row row, Report report) {
+        Patient patient = row.patient();
+        // The rolled back insert left its ID and version on the patient, which would make it look already stored
+        patient.setId(null);
+        patient.setVersion(null);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                patientRepository.saveAndFlush(patient);
+                entityManager.clear();
+            });
+            report.imported++;
+
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.violates(e, Patient.NAME_CONSTRAINT)) {
+                report.duplicates++;
+            } else {
+                report.reject(row.lineNumber(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+            }
+        } catch (DataAccessException e) {
+            report.reject(row.lineNumber(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static String key(String firstName, String lastName, String dateOfBirth) {
+        return firstName.toLowerCase(Locale.ROOT) + '\0' + lastName.toLowerCase(Locale.ROOT) + '\0' + dateOfBirth;
+    }
+
+    private record Row(long lineNumber, Patient patient) {
+    }
+
+    /**
+     * Counters of an import, keeping the description of the first rejected rows only.
+     */
+    private static class Report {
+        private final int maxErrors;
+        private final List<String> errors = new ArrayList<>();
+        private long read;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add("Line " + lineNumber + ": " + reason);
+            }
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package com.medilabo.backend.service.impl;
 
+import com.medilabo.backend.event.PatientEvent;
 import com.medilabo.backend.exceptions.DatabaseOperationException;
 import com.medilabo.backend.exceptions.PatientAlreadyExistsException;
 import com.medilabo.backend.exceptions.PatientNotFoundException;
+import com.medilabo.backend.exceptions.PatientVersionConflictException;
+import com.medilabo.backend.config.PatientPaginationConfig;
+import com.medilabo.backend.config.PatientTypeaheadConfig;
 import com.medilabo.backend.model.Patient;
+import com.medilabo.backend.model.PatientCursor;
+import com.medilabo.backend.model.PatientPage;
+import com.medilabo.backend.model.PatientSort;
+import com.medilabo.backend.model.PatientSummary;
 import com.medilabo.backend.repository.PatientRepository;
+import com.medilabo.backend.service.PatientCacheService;
 import com.medilabo.backend.service.PatientService;
+import com.medilabo.backend.util.ConstraintViolations;
 import com.medilabo.backend.util.PatientValidationService;
 import jakarta.validation.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +46,21 @@ public class PatientServiceImpl implements PatientService {
     @Autowired
     private PatientValidationService patientValidationService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PatientPaginationConfig patientPaginationConfig;
+
+    @Autowired
+    private PatientTypeaheadConfig patientTypeaheadConfig;
+
+    @Autowired
+    private PatientCacheService patientCacheService;
+
+    // Order of the typeahead matches, the order of the name index
+    private static final Sort TYPEAHEAD_SORT = Sort.by("lastName", "firstName", "dateOfBirth", "id");
+
     /**
      * Adds a new patient to the system.
      *
@@ -47,23 +79,21 @@ public class PatientServiceImpl implements PatientService {
             // Validate the patient using a validation service
             patientValidationService.validatePatient(patient);
 
-            // Check if the patient already exists
-            Optional<Patient> isPatientExist = patientRepository.findByFirstNameAndLastNameAndDateOfBirth(
-                    patient.getFirstName(), patient.getLastName(), patient.getDateOfBirth()
-            );
-
-            if (isPatientExist.isPresent()) {
-                // Log and throw a specific exception if the patient already exists
-                logger.warn("Patient already exists with the provided details: {} {} {}",
-                        patient.getFirstName(), patient.getLastName(), patient.getDateOfBirth());
-                throw new PatientAlreadyExistsException("Patient already exists with these details.");
-            }
-
-            // Save the new patient to the repository
-            Patient savedPatient = patientRepository.save(patient);
+            // Insert the new patient right away: the unique name index rejects it if the patient already exists
+            Patient savedPatient = patientRepository.saveAndFlush(patient);
             logger.info("Patient added successfully with ID: {}", savedPatient.getId());
             return savedPatient;
 
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.violates(e, Patient.NAME_CONSTRAINT)) {
+                logger.error("Database operation failed while adding patient: {}", e.getMessage(), e);
+                throw new DatabaseOperationException("Database operation failed: " + e.getMessage(), e);
+            }
+            // Log and throw a specific exception if the patient already exists
+            logger.warn("Patient already exists with the provided details: {} {} {}",
+                    patient.getFirstName(), patient.getLastName(), patient.getDateOfBirth());
+            throw new PatientAlreadyExistsException("Patient already exists with these details.", e);
+
         } catch (IllegalArgumentException e) {
             // Log and throw a specific validation exception
             logger.error("Validation failed while adding patient: {}", e.getMessage(), e);
@@ -82,6 +112,7 @@ public class PatientServiceImpl implements PatientService {
      * @return The updated patient if successful.
      * @throws PatientNotFoundException if the patient is not found.
      * @throws ValidationException if validation fails during the update process.
+     * @throws PatientVersionConflictException if the patient was updated since the given version was read.
      * @throws DatabaseOperationException if there is an error during the database operation.
      */
     @Transactional
@@ -102,15 +133,27 @@ public class PatientServiceImpl implements PatientService {
                 throw new PatientNotFoundException("Patient with ID " + patient.getId() + " not found.");
             }
 
-            // Update the patient data and save
-            Patient updatedPatient = patientRepository.save(patient);
+            // A client that did not send the version it read updates the current one
+            if (patient.getVersion() == null) {
+                patient.setVersion(oldPatientEntry.get().getVersion());
+            }
+
+            // Update the patient data and save; flushed now so that a stale version is reported here
+            Patient updatedPatient = patientRepository.saveAndFlush(patient);
             logger.info("Patient updated successfully with ID: {}", updatedPatient.getId());
+
+            // Notify the other services once the update is committed
+            eventPublisher.publishEvent(PatientEvent.updated(updatedPatient.getId()));
             return updatedPatient;
 
         } catch (IllegalArgumentException e) {
             // Log and throw a specific validation exception
             logger.error("Validation failed while updating patient: {}", e.getMessage(), e);
             throw new ValidationException("Validation failed: " + e.getMessage(), e);
+        } catch (OptimisticLockingFailureException e) {
+            // Log and throw a specific exception if the patient was updated since the client read it
+            logger.warn("Patient with ID: {} was updated since version {} was read", patient.getId(), patient.getVersion());
+            throw new PatientVersionConflictException("Patient with ID " + patient.getId() + " was updated by someone else.", e);
         } catch (DataAccessException e) {
             // Log and throw a specific database operation exception
             logger.error("Database operation failed while updating patient: {}", e.getMessage(), e);
@@ -119,30 +162,51 @@ public class PatientServiceImpl implements PatientService {
     }
 
     /**
-     * Fetches all patients from the system.
+     * Fetches one page of patients, in the order of a sort key then of the ID.
+     * Pages are read by keyset: the next page starts after the sort key and ID of the last patient of the previous
+     * one, so reading any page is an index range scan of the page size, whatever the number of patients.
      *
-     * @return A list of all patients.
+     * @param sort The sort key (id, lastName, firstName or dateOfBirth), or null to sort by ID.
+     * @param direction The sort direction (asc or desc), or null for ascending.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of patients of the page, or null for the default size; capped to the maximum size.
+     * @param count Whether to count all the patients, which costs a scan of the table.
+     * @return The page of patients, with the cursor of the next page if there is one.
+     * @throws IllegalArgumentException if a parameter is invalid.
      * @throws DatabaseOperationException if there is an error during the database operation.
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<Patient> getAll() {
-        logger.info("Fetching all patients");
+    public PatientPage getPage(String sort, String direction, String after, Integer limit, boolean count) {
+        PatientSort patientSort = PatientSort.of(sort);
+        Sort.Direction sortDirection = direction == null || direction.isEmpty()
+                ? Sort.Direction.ASC
+                : Sort.Direction.fromOptionalString(direction)
+                        .orElseThrow(() -> new IllegalArgumentException("Invalid sort direction: " + direction));
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int size = Math.min(limit == null ? patientPaginationConfig.getDefaultSize() : limit, patientPaginationConfig.getMaxSize());
+        PatientCursor cursor = PatientCursor.decode(after, patientSort, sortDirection);
 
         try {
-            List<Patient> patients = patientRepository.findAll();
+            Window<Patient> window = patientRepository.findAllBy(
+                    cursor == null ? ScrollPosition.keyset() : cursor.toScrollPosition(),
+                    patientSort.toSort(sortDirection),
+                    Limit.of(size));
 
-            if (patients.isEmpty()) {
-                logger.warn("No patients found in the system.");
-            } else {
-                logger.info("Fetched {} patients", patients.size());
-            }
+            List<Patient> patients = window.getContent();
+            String nextCursor = window.hasNext() && !patients.isEmpty()
+                    ? PatientCursor.of(patientSort, sortDirection, patients.get(patients.size() - 1)).encode()
+                    : null;
+            logger.debug("Fetched {} patients sorted by {} {}", patients.size(), patientSort.getProperty(), sortDirection);
 
-            return patients;
+            return new PatientPage(patients, nextCursor, count ? patientRepository.count() : null);
 
         } catch (DataAccessException e) {
             // Log the error and throw a specific database operation exception
-            logger.error("Error occurred while fetching all patients: {}", e.getMessage(), e);
-            throw new DatabaseOperationException("Database operation failed while fetching all patients: " + e.getMessage(), e);
+            logger.error("Error occurred while fetching patients: {}", e.getMessage(), e);
+            throw new DatabaseOperationException("Database operation failed while fetching patients: " + e.getMessage(), e);
         }
     }
 
@@ -186,6 +250,45 @@ public class PatientServiceImpl implements PatientService {
         }
     }
 
+    /**
+     * Finds the first patients whose name starts with the typed text, for a typeahead.
+     * The first word of the query is a prefix of the last name, and the rest, if any, a prefix of the first name;
+     * the comparison is case-insensitive with the default collation of the table.
+     *
+     * @param query The typed text, "lastName [firstName]".
+     * @param limit The maximum number of matches, or null for the default size; capped to the maximum size.
+     * @return The summaries of the matching patients, ordered by last name, first name, date of birth then ID.
+     * @throws IllegalArgumentException if the query is blank or the limit is not positive.
+     * @throws DatabaseOperationException if there is an error during the database operation.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<PatientSummary> typeahead(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query must not be empty");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int size = Math.min(limit == null ? patientTypeaheadConfig.getDefaultSize() : limit, patientTypeaheadConfig.getMaxSize());
+
+        String[] terms = query.strip().split("\\s+", 2);
+        String lastNamePrefix = terms[0];
+        String firstNamePrefix = terms.length > 1 ? terms[1] : "";
+
+        try {
+            List<PatientSummary> matches = patientRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                    lastNamePrefix, firstNamePrefix, TYPEAHEAD_SORT, Limit.of(size));
+            logger.debug("Found {} patients for typeahead query: {}", matches.size(), query);
+            return matches;
+
+        } catch (DataAccessException e) {
+            // Log and throw a specific database operation exception if any DB issue occurs
+            logger.error("Database operation failed during typeahead for query: {}", query, e);
+            throw new DatabaseOperationException("Database operation failed: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Deletes a patient from the system based on the provided ID.
      *
@@ -214,6 +317,9 @@ public class PatientServiceImpl implements PatientService {
             patientRepository.deleteById(Long.valueOf(id));
             logger.info("Patient with ID: {} deleted successfully", id);
 
+            // Notify the other services that the patient is gone
+            eventPublisher.publishEvent(PatientEvent.deleted(id));
+
         } catch (DataAccessException e) {
             // Log and throw a specific database operation exception
             logger.error("Database operation failed while deleting patient with ID: {}", id, e);
@@ -221,18 +327,25 @@ public class PatientServiceImpl implements PatientService {
         }
     }
 
+    /**
+     * Retrieves a patient by ID, through the patient cache.
+     * Only the ID is logged, as this is the most frequent lookup.
+     *
+     * @param id The ID of the patient.
+     * @return An Optional containing the patient if found, otherwise empty.
+     * @throws ValidationException if the ID is not a number.
+     * @throws DatabaseOperationException if there is an error during the database operation.
+     */
     @Override
     public Optional<Patient> getPatientById(String id) {
-        logger.info("Searching for patient by id: {}", id);
+        logger.debug("Searching for patient by id: {}", id);
 
         try {
-            // Search for the patient in the repository
-            Optional<Patient> patient = patientRepository.getPatientById(Long.valueOf(id)).stream().findFirst();
+            // Search for the patient in the cache, then in the repository
+            Optional<Patient> patient = patientCacheService.getPatientById(Long.valueOf(id), patientRepository::getPatientById);
 
             // Log whether the patient was found
-            if (patient.isPresent()) {
-                logger.info("Patient found: {}", patient.get());
-            } else {
+            if (patient.isEmpty()) {
                 logger.warn("No patient found with this id: {}", id);
             }
 
@@ -0,0 +1,37 @@
+package com.medilabo.backend.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+
+/**
+ * Identifies the database constraint behind a data integrity violation.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Checks whether a data integrity violation was raised by the given constraint.
+     * MySQL reports the constraint name prefixed with the table name (e.g. "patients.uk_patients_name_dob"),
+     * and may change its case.
+     *
+     * @param e the violation
+     * @param constraintName the name of the constraint, in lower case
+     * @return true if the violation or one of its causes names the constraint
+     */
+    public static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName().toLowerCase(Locale.ROOT);
+                if (name.equals(constraintName) || name.endsWith("." + constraintName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
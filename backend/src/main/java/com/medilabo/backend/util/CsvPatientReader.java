@@ -0,0 +1,163 @@
+package com.medilabo.backend.util;
+
+import com.medilabo.backend.model.Patient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Reads patients from CSV (RFC 4180): comma-separated fields, optionally quoted with double quotes,
+ * a quote inside a quoted field being doubled. Quoted fields may span several lines.
+ * The first row is a header naming the columns, in any order and case: firstName, lastName, dateOfBirth and gender
+ * are required, postalAddress and phone optional, and other columns are ignored. Empty fields are read as null.
+ */
+public class CsvPatientReader implements PatientImportReader {
+
+    private static final Map<String, BiConsumer<Patient, String>> COLUMNS = Map.of(
+            "firstname", Patient::setFirstName,
+            "lastname", Patient::setLastName,
+            "dateofbirth", Patient::setDateOfBirth,
+            "gender", Patient::setGender,
+            "postaladdress", Patient::setPostalAddress,
+            "phone", Patient::setPhone
+    );
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("firstname", "lastname", "dateofbirth", "gender");
+
+    private final BufferedReader reader;
+
+    // Setter of each column of the header, null for the ignored columns
+    private final List<BiConsumer<Patient, String>> setters = new ArrayList<>();
+
+    private long lineNumber;
+    private long rowLineNumber;
+
+    /**
+     * Creates a reader and reads the header.
+     *
+     * @param reader the CSV input
+     * @throws IllegalArgumentException if the header is missing or lacks a required column
+     * @throws IOException if the input cannot be read
+     */
+    public CsvPatientReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+
+        List<String> header = readRow();
+        if (header == null) {
+            throw new IllegalArgumentException("Missing CSV header");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            String column = name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+            columns.add(column);
+            setters.add(COLUMNS.get(column));
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.contains(required)) {
+                throw new IllegalArgumentException("Missing CSV column: " + required);
+            }
+        }
+    }
+
+    @Override
+    public Patient next() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0) == null);
+
+        if (row.size() != setters.size()) {
+            throw new IllegalArgumentException("Expected " + setters.size() + " fields, found " + row.size());
+        }
+        Patient patient = new Patient();
+        for (int i = 0; i < row.size(); i++) {
+            if (setters.get(i) != null) {
+                setters.get(i).accept(patient, row.get(i));
+            }
+        }
+        return patient;
+    }
+
+    @Override
+    public long getLineNumber() {
+        return rowLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the fields of the next row, a blank line being a single null field.
+     *
+     * @return the fields, or null at the end of the input
+     * @throws IllegalArgumentException if a quoted field is not closed before the end of the input
+     */
+    private List<String> readRow() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        rowLineNumber = ++lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // The quoted field goes on on the next line
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IllegalArgumentException("Unclosed quoted field");
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(value(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(value(field, wasQuoted));
+        return fields;
+    }
+
+    private static String value(StringBuilder field, boolean wasQuoted) {
+        String value = wasQuoted ? field.toString() : field.toString().strip();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,61 @@
+package com.medilabo.backend.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.backend.model.Patient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+
+/**
+ * Reads patients from newline-delimited JSON, one patient object per line. Blank lines are skipped.
+ * Each line is parsed on its own, so a malformed line only rejects that row.
+ * The ID and version of the rows are ignored: imported patients are always new.
+ */
+public class NdjsonPatientReader implements PatientImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    public NdjsonPatientReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Patient next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        try {
+            Patient patient = objectMapper.readValue(line, Patient.class);
+            if (patient == null) {
+                throw new IllegalArgumentException("Expected a patient object");
+            }
+            patient.setId(null);
+            patient.setVersion(null);
+            return patient;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @Override
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
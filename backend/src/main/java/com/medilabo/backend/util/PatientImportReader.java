@@ -0,0 +1,29 @@
+package com.medilabo.backend.util;
+
+import com.medilabo.backend.model.Patient;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+
+/**
+ * Reads the patients of a bulk import one row at a time, so that the file is never held in memory.
+ */
+public interface PatientImportReader extends Closeable {
+
+    /**
+     * Reads the next patient.
+     *
+     * @return the patient of the next row, or null at the end of the input
+     * @throws IllegalArgumentException if the row is malformed; the reader is then positioned on the following row
+     * @throws IOException if the input cannot be read
+     */
+    Patient next() throws IOException;
+
+    /**
+     * Returns the line number where the last row read starts, to report errors.
+     *
+     * @return the line number, starting at 1
+     */
+    long getLineNumber();
+}
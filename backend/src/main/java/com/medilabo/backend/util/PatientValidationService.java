@@ -4,6 +4,8 @@ import com.medilabo.backend.exceptions.ValidationException;
 import com.medilabo.backend.model.Patient;
 import org.springframework.stereotype.Service;
 
+import java.util.regex.Pattern;
+
 
 /**
  * Validates a patient object to ensure essential fields are not null or empty.
@@ -19,6 +21,10 @@ import org.springframework.stereotype.Service;
 @Service
 public class PatientValidationService {
 
+    // Same formats as the constraints of the Patient entity
+    private static final Pattern DATE_OF_BIRTH = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9. ()-]{7,25}$");
+
     /**
      * Validates a patient object to ensure essential fields are not null or empty.
      * Throws a ValidationException with specific messages if validation fails for:
@@ -48,6 +54,30 @@ public class PatientValidationService {
         }
     }
 
+    /**
+     * Validates the formats of the fields of a patient, as declared on the Patient entity, before it is inserted
+     * without going through the web layer: names of at most 50 characters, a YYYY-MM-DD date of birth,
+     * a Male or Female gender and, when given, a phone number.
+     * Throws a ValidationException with a specific message for the first invalid field.
+     */
+    public void validateFormats(Patient patient) {
+        if (patient.getFirstName().length() > 50 || patient.getLastName().length() > 50) {
+            throw new ValidationException("Patient's names cannot be longer than 50 characters");
+        }
+
+        if (!DATE_OF_BIRTH.matcher(patient.getDateOfBirth()).matches()) {
+            throw new ValidationException("Patient's date of birth must be formatted as YYYY-MM-DD");
+        }
+
+        if (!"Male".equals(patient.getGender()) && !"Female".equals(patient.getGender())) {
+            throw new ValidationException("Patient's gender must be Male or Female");
+        }
+
+        if (patient.getPhone() != null && !PHONE.matcher(patient.getPhone()).matches()) {
+            throw new ValidationException("Patient's phone number is invalid");
+        }
+    }
+
     /**
      * Checks if the first name or last name is null or empty.
      * Throws an IllegalArgumentException if either first name or last name is null or empty.
@@ -0,0 +1,67 @@
+package com.medilabo.backend.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatientCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        PatientCursor cursor = PatientCursor.of(PatientSort.LAST_NAME, Sort.Direction.DESC, patient(42L, "D'Arc|Dupont"));
+
+        PatientCursor decoded = PatientCursor.decode(cursor.encode(), PatientSort.LAST_NAME, Sort.Direction.DESC);
+
+        assertEquals(cursor, decoded);
+        KeysetScrollPosition position = decoded.toScrollPosition();
+        assertEquals(Map.of("lastName", "D'Arc|Dupont", "id", 42L), position.getKeys());
+    }
+
+    @Test
+    void cursorByIdOnlyCarriesTheId() {
+        PatientCursor cursor = PatientCursor.of(PatientSort.ID, Sort.Direction.ASC, patient(7L, "Martin"));
+
+        PatientCursor decoded = PatientCursor.decode(cursor.encode(), PatientSort.ID, Sort.Direction.ASC);
+
+        assertNull(decoded.value());
+        assertEquals(Map.of("id", 7L), decoded.toScrollPosition().getKeys());
+    }
+
+    @Test
+    void missingTokenIsTheFirstPage() {
+        assertNull(PatientCursor.decode(null, PatientSort.ID, Sort.Direction.ASC));
+        assertNull(PatientCursor.decode("", PatientSort.ID, Sort.Direction.ASC));
+    }
+
+    @Test
+    void cursorIsRejectedUnderAnotherSortOrDirection() {
+        String token = PatientCursor.of(PatientSort.LAST_NAME, Sort.Direction.ASC, patient(1L, "Dupont")).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> PatientCursor.decode(token, PatientSort.FIRST_NAME, Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class, () -> PatientCursor.decode(token, PatientSort.LAST_NAME, Sort.Direction.DESC));
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PatientCursor.decode("not base64!", PatientSort.ID, Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class, () -> PatientCursor.decode(
+                Base64.getUrlEncoder().encodeToString("ID|ASC|abc|".getBytes(StandardCharsets.UTF_8)), PatientSort.ID, Sort.Direction.ASC));
+    }
+
+    private static Patient patient(Long id, String lastName) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setFirstName("Jeanne");
+        patient.setLastName(lastName);
+        patient.setDateOfBirth("1970-01-01");
+        return patient;
+    }
+}
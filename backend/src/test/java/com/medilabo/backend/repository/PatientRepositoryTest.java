@@ -0,0 +1,44 @@
+package com.medilabo.backend.repository;
+
+import com.medilabo.backend.model.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the unique name index against an embedded database.
+ */
+@DataJpaTest
+class PatientRepositoryTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void duplicatePatientIsRejectedByTheUniqueNameIndex() {
+        assertNotNull(patientRepository.saveAndFlush(patient("Jean", "Dupont", "1970-01-01")).getId());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> patientRepository.saveAndFlush(patient("Jean", "Dupont", "1970-01-01")));
+    }
+
+    @Test
+    void patientsSharingANameWithAnotherDateOfBirthAreAccepted() {
+        patientRepository.saveAndFlush(patient("Jean", "Dupont", "1970-01-01"));
+
+        assertNotNull(patientRepository.saveAndFlush(patient("Jean", "Dupont", "1980-01-01")).getId());
+    }
+
+    private static Patient patient(String firstName, String lastName, String dateOfBirth) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName(lastName);
+        patient.setDateOfBirth(dateOfBirth);
+        patient.setGender("Male");
+        return patient;
+    }
+}
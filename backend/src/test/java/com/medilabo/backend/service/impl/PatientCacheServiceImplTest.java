@@ -0,0 +1,81 @@
+package com.medilabo.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.backend.config.PatientCacheConfig;
+import com.medilabo.backend.model.Patient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the local tier of the patient cache, Redis being unavailable.
+ */
+@ExtendWith(MockitoExtension.class)
+class PatientCacheServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private PatientCacheServiceImpl patientCacheService;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("Redis is down"));
+        patientCacheService = new PatientCacheServiceImpl(redisTemplate, new ObjectMapper(),
+                new PatientCacheConfig(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void everyLookupGetsItsOwnCopy() {
+        Patient loaded = patientCacheService.getPatientById(1L, this::load).orElseThrow();
+        loaded.setLastName("Changed");
+
+        Patient first = patientCacheService.getPatientById(1L, this::load).orElseThrow();
+        Patient second = patientCacheService.getPatientById(1L, this::load).orElseThrow();
+        first.setFirstName("Changed");
+
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertEquals("Dupont", second.getLastName());
+        assertEquals("Jean", second.getFirstName());
+        assertEquals(3L, second.getVersion());
+    }
+
+    @Test
+    void missingPatientIsNotCached() {
+        assertTrue(patientCacheService.getPatientById(2L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+
+        assertEquals("Dupont", patientCacheService.getPatientById(2L, this::load).orElseThrow().getLastName());
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<Patient> load(Long id) {
+        loads.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setFirstName("Jean");
+        patient.setLastName("Dupont");
+        patient.setDateOfBirth("1970-01-01");
+        patient.setGender("Male");
+        patient.setVersion(3L);
+        return Optional.of(patient);
+    }
+}
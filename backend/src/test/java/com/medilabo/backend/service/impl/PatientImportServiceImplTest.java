@@ -0,0 +1,83 @@
+package com.medilabo.backend.service.impl;
+
+import com.medilabo.backend.config.PatientImportConfig;
+import com.medilabo.backend.model.Patient;
+import com.medilabo.backend.model.PatientImportResult;
+import com.medilabo.backend.repository.PatientRepository;
+import com.medilabo.backend.util.PatientValidationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the import against an embedded database, by chunks of two rows.
+ * The test is not transactional, so each chunk commits in its own transaction as it does in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PatientImportServiceImpl.class, PatientValidationService.class, PatientImportConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class PatientImportServiceImplTest {
+
+    @Autowired
+    private PatientImportServiceImpl patientImportService;
+
+    @Autowired
+    private PatientImportConfig patientImportConfig;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @BeforeEach
+    void setUp() {
+        patientImportConfig.setBatchSize(2);
+
+        Patient patient = new Patient();
+        patient.setFirstName("Jean");
+        patient.setLastName("Dupont");
+        patient.setDateOfBirth("1970-01-01");
+        patient.setGender("Male");
+        patientRepository.saveAndFlush(patient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void duplicatesAreSkippedWithinAndAcrossChunks() throws IOException {
+        String csv = """
+                firstName,lastName,dateOfBirth,gender
+                jean,DUPONT,1970-01-01,Male
+                Marie,Curie,1980-05-05,Female
+                marie,curie,1980-05-05,Female
+                Paul,Martin,1990-01-01,Male
+                Anne,Roy,2000-01-01,Female
+                Anne,Roy,2000-01-01,Female
+                """;
+
+        PatientImportResult result = patientImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Line 2 duplicates an existing patient, line 4 a patient of the previous chunk and line 7 one of the same chunk
+        assertEquals(6, result.read());
+        assertEquals(3, result.imported());
+        assertEquals(3, result.duplicates());
+        assertEquals(0, result.rejected());
+        assertEquals(4, patientRepository.count());
+    }
+}
@@ -0,0 +1,38 @@
+package com.medilabo.backend.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConstraintViolationsTest {
+
+    private static final String CONSTRAINT = "uk_patients_name_dob";
+
+    @Test
+    void matchesTheConstraintNameAsReportedByMySql() {
+        // MySQL 8 prefixes the key name with the table name
+        assertTrue(ConstraintViolations.violates(violation("patients.uk_patients_name_dob"), CONSTRAINT));
+        assertTrue(ConstraintViolations.violates(violation("uk_patients_name_dob"), CONSTRAINT));
+        assertTrue(ConstraintViolations.violates(violation("PATIENTS.UK_PATIENTS_NAME_DOB"), CONSTRAINT));
+    }
+
+    @Test
+    void ignoresOtherConstraints() {
+        assertFalse(ConstraintViolations.violates(violation("patients.PRIMARY"), CONSTRAINT));
+        assertFalse(ConstraintViolations.violates(violation("patients.xuk_patients_name_dob"), CONSTRAINT));
+        assertFalse(ConstraintViolations.violates(violation(null), CONSTRAINT));
+        assertFalse(ConstraintViolations.violates(new DataIntegrityViolationException("no cause"), CONSTRAINT));
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        SQLIntegrityConstraintViolationException sqlException = new SQLIntegrityConstraintViolationException(
+                "Duplicate entry 'Dupont-Jean-1970-01-01' for key '" + constraintName + "'", "23000", 1062);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, "insert", constraintName));
+    }
+}
@@ -0,0 +1,51 @@
+package com.medilabo.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+
+/**
+ * Times the calls made by the service clients with a Micrometer timer named "medilabo.client.requests",
+ * tagged with the client, the operation and the outcome (success, error or cancelled).
+ */
+public class ClientMetrics {
+
+    public static final String TIMER_NAME = "medilabo.client.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public ClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> time(String client, String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doFinally(signal -> stop(sample, client, operation, signal));
+        });
+    }
+
+    public <T> Flux<T> time(String client, String operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doFinally(signal -> stop(sample, client, operation, signal));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String client, String operation, SignalType signal) {
+        String outcome = switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+        sample.stop(Timer.builder(TIMER_NAME)
+                .description("Calls from the MediLabo service clients")
+                .tag("client", client)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
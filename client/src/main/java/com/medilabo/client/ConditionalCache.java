@@ -0,0 +1,102 @@
+package com.medilabo.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * Last responses of a client's conditional GETs, with their ETag, by request URI.
+ * A request for a known URI sends the ETag in If-None-Match; on NOT_MODIFIED, the kept body is decoded again
+ * without the service sending it.
+ * Bodies are kept as received rather than decoded, so every caller gets its own instances and may modify them.
+ * Bounded to the given number of entries, the least recently used being dropped first.
+ *
+ * @param <T> the type of the decoded responses
+ */
+class ConditionalCache<T> {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    ConditionalCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ConditionalCache.this.maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Sends a GET request, conditional on the ETag of the response kept for the same URI if any.
+     * Error statuses raise a WebClientResponseException, as with retrieve().
+     *
+     * @param key the request URI
+     * @param request the GET request to send
+     * @param decoder the decoding of a successful response body
+     * @return a Mono emitting the new response, or the kept one decoded again if it is still current
+     */
+    Mono<T> get(String key, WebClient.RequestHeadersSpec<?> request, Function<ClientResponse, Mono<T>> decoder) {
+        if (maxEntries <= 0) {
+            return request.exchangeToMono(response -> response.statusCode().is2xxSuccessful()
+                    ? decoder.apply(response)
+                    : response.createError());
+        }
+
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            request = request.ifNoneMatch(cached.eTag());
+        }
+
+        return request.exchangeToMono(response -> {
+            if (cached != null && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return response.releaseBody().then(decoder.apply(cached.toResponse(response.strategies())));
+            }
+            if (!response.statusCode().is2xxSuccessful()) {
+                entries.remove(key);
+                return response.createError();
+            }
+
+            String eTag = response.headers().asHttpHeaders().getETag();
+            if (eTag == null) {
+                entries.remove(key);
+                return decoder.apply(response);
+            }
+
+            MediaType contentType = response.headers().contentType().orElse(null);
+            return response.bodyToMono(String.class)
+                    .defaultIfEmpty("")
+                    .flatMap(body -> {
+                        Entry entry = new Entry(eTag, contentType, body);
+                        // Kept once decoded, so a body the decoder rejects is not reused
+                        return decoder.apply(entry.toResponse(response.strategies()))
+                                .doOnNext(decoded -> entries.put(key, entry));
+                    });
+        });
+    }
+
+    private record Entry(String eTag, MediaType contentType, String body) {
+
+        /**
+         * Rebuilds a successful response carrying the kept body, for the decoder of the caller.
+         */
+        ClientResponse toResponse(ExchangeStrategies strategies) {
+            ClientResponse.Builder response = ClientResponse.create(HttpStatus.OK, strategies).body(body);
+            if (contentType != null) {
+                response.header(HttpHeaders.CONTENT_TYPE, contentType.toString());
+            }
+            return response.build();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.medilabo.client;
+
+import com.medilabo.client.config.ServiceClientProperties;
+import com.medilabo.client.model.Note;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+
+/**
+ * Typed client of the note service API.
+ * Every call is bounded by the configured timeout and timed under the "note" client tag.
+ * The lists of notes of a patient are kept with their ETag and revalidated with conditional requests.
+ */
+public class NoteClient {
+
+    private static final String CLIENT = "note";
+
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ClientMetrics metrics;
+    private final ConditionalCache<List<Note>> conditionalCache;
+
+    public NoteClient(WebClient webClient, ServiceClientProperties.Service service, ClientMetrics metrics) {
+        this.webClient = webClient;
+        this.baseUrl = service.getBaseUrl();
+        this.timeout = service.getTimeout();
+        this.metrics = metrics;
+        this.conditionalCache = new ConditionalCache<>(service.getConditionalCacheSize());
+    }
+
+    /**
+     * Retrieves the notes of a patient.
+     * The notes already received are returned again if the note service answers that they did not change.
+     *
+     * @param patientId the ID of the patient
+     * @return a Flux emitting the notes of the patient
+     */
+    public Flux<Note> getNotesByPatientId(String patientId) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParam("patientId", "{patientId}")
+                .build(patientId);
+        return metrics.time(CLIENT, "getByPatient", conditionalCache.get(uri.toString(), webClient.get().uri(uri), NoteClient::toNotes)
+                .timeout(timeout))
+                .flatMapIterable(notes -> notes);
+    }
+
+    /**
+     * Streams the notes of a patient as they are read by the note service, in (noteDate, id) order.
+     * The timeout applies to the wait for each note rather than to the whole stream.
+     *
+     * @param patientId the ID of the patient
+     * @return a Flux emitting the notes of the patient as they arrive
+     */
+    public Flux<Note> streamNotesByPatientId(String patientId) {
+        return metrics.time(CLIENT, "streamByPatient", webClient.get()
+                .uri(baseUrl + "/stream?patientId={patientId}", patientId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(Note.class)
+                .timeout(timeout));
+    }
+
+    /**
+     * Retrieves a lean view of the notes of a patient, sorted by date: the triggers found in each note when
+     * the given trigger set version is the one of the note service, or only the content otherwise.
+     * Other fields of the returned notes are not set.
+     *
+     * @param patientId the ID of the patient
+     * @param triggerSetVersion the version of the caller's trigger set
+     * @return a Flux emitting the projected notes of the patient
+     */
+    public Flux<Note> getLeanNotesByPatientId(String patientId, String triggerSetVersion) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl + "/lean")
+                .queryParam("patientId", "{patientId}")
+                .queryParam("triggerSetVersion", "{triggerSetVersion}")
+                .build(patientId, triggerSetVersion);
+        return metrics.time(CLIENT, "getLeanByPatient", conditionalCache.get(uri.toString(), webClient.get().uri(uri), NoteClient::toNotes)
+                .timeout(timeout))
+                .flatMapIterable(notes -> notes);
+    }
+
+    private static Mono<List<Note>> toNotes(ClientResponse response) {
+        return response.bodyToFlux(Note.class).collectList();
+    }
+
+    /**
+     * Adds a note.
+     *
+     * @param note the note to add
+     * @return a Mono emitting the created note
+     */
+    public Mono<Note> addNote(Note note) {
+        return metrics.time(CLIENT, "add", webClient.post()
+                .uri(baseUrl)
+                .bodyValue(note)
+                .retrieve()
+                .bodyToMono(Note.class)
+                .timeout(timeout));
+    }
+}
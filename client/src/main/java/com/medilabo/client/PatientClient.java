@@ -0,0 +1,147 @@
+package com.medilabo.client;
+
+import com.medilabo.client.config.ServiceClientProperties;
+import com.medilabo.client.model.Patient;
+import com.medilabo.client.model.PatientPage;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Typed client of the patient API of the backend service.
+ * Every call is bounded by the configured timeout and timed under the "patient" client tag.
+ * Patients retrieved by ID are kept with their ETag and revalidated with conditional requests.
+ */
+public class PatientClient {
+
+    private static final String CLIENT = "patient";
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ClientMetrics metrics;
+    private final ConditionalCache<Patient> conditionalCache;
+
+    public PatientClient(WebClient webClient, ServiceClientProperties.Service service, ClientMetrics metrics) {
+        this.webClient = webClient;
+        this.baseUrl = service.getBaseUrl();
+        this.timeout = service.getTimeout();
+        this.metrics = metrics;
+        this.conditionalCache = new ConditionalCache<>(service.getConditionalCacheSize());
+    }
+
+    /**
+     * Retrieves all the patients, sorted by ID, reading the listing page after page.
+     *
+     * @return a Flux emitting every patient
+     */
+    public Flux<Patient> getAllPatients() {
+        return getPatientsPage(null, null, null, null, false)
+                .expand(page -> page.nextCursor() == null
+                        ? Mono.empty()
+                        : getPatientsPage(null, null, page.nextCursor(), null, false))
+                .concatMapIterable(PatientPage::patients);
+    }
+
+    /**
+     * Retrieves one page of patients.
+     *
+     * @param sort the sort key (id, lastName, firstName or dateOfBirth), or null to sort by ID
+     * @param direction the sort direction (asc or desc), or null for ascending
+     * @param after the cursor of the previous page, read with the same sort, or null for the first page
+     * @param limit the maximum number of patients of the page, or null for the default size of the backend
+     * @param count whether to also retrieve the total number of patients
+     * @return a Mono emitting the page of patients
+     */
+    public Mono<PatientPage> getPatientsPage(String sort, String direction, String after, Integer limit, boolean count) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParamIfPresent("sort", Optional.ofNullable(sort))
+                .queryParamIfPresent("direction", Optional.ofNullable(direction))
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                .queryParam("count", count)
+                .encode()
+                .build()
+                .toUri();
+        return metrics.time(CLIENT, "getPage", webClient.get()
+                .uri(uri)
+                .retrieve()
+                .toEntityList(Patient.class)
+                .map(response -> {
+                    String totalCount = response.getHeaders().getFirst(TOTAL_COUNT_HEADER);
+                    return new PatientPage(response.getBody() == null ? List.of() : response.getBody(),
+                            response.getHeaders().getFirst(NEXT_CURSOR_HEADER),
+                            totalCount == null ? null : Long.valueOf(totalCount));
+                })
+                .timeout(timeout));
+    }
+
+    /**
+     * Retrieves a patient by its ID.
+     * The patient already received is returned again if the backend answers that it did not change.
+     *
+     * @param id the ID of the patient
+     * @return a Mono emitting the patient
+     */
+    public Mono<Patient> getPatient(String id) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl + "/{id}").build(id);
+        return metrics.time(CLIENT, "get", conditionalCache.get(uri.toString(), webClient.get().uri(uri),
+                        response -> response.bodyToMono(Patient.class))
+                .timeout(timeout));
+    }
+
+    /**
+     * Creates a patient.
+     *
+     * @param patient the patient to create
+     * @return a Mono emitting the created patient
+     */
+    public Mono<Patient> createPatient(Patient patient) {
+        return metrics.time(CLIENT, "create", webClient.post()
+                .uri(baseUrl)
+                .bodyValue(patient)
+                .retrieve()
+                .bodyToMono(Patient.class)
+                .timeout(timeout));
+    }
+
+    /**
+     * Updates a patient.
+     *
+     * @param patient the patient to update, identified by its ID
+     * @return a Mono emitting the updated patient
+     */
+    public Mono<Patient> updatePatient(Patient patient) {
+        return metrics.time(CLIENT, "update", webClient.put()
+                .uri(baseUrl + "/{id}", patient.getId())
+                .bodyValue(patient)
+                .retrieve()
+                .bodyToMono(Patient.class)
+                .timeout(timeout));
+    }
+
+    /**
+     * Deletes a patient.
+     *
+     * @param id the ID of the patient to delete
+     * @return a Mono completing once the patient is deleted
+     */
+    public Mono<Void> deletePatient(String id) {
+        return metrics.time(CLIENT, "delete", webClient.delete()
+                .uri(baseUrl + "/{id}", id)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(timeout)
+                .then());
+    }
+}
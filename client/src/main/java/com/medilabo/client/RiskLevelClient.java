@@ -0,0 +1,48 @@
+package com.medilabo.client;
+
+import com.medilabo.client.config.ServiceClientProperties;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+
+/**
+ * Typed client of the risk level service API.
+ * Every call is bounded by the configured timeout and timed under the "risklevel" client tag.
+ */
+public class RiskLevelClient {
+
+    private static final String CLIENT = "risklevel";
+
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ClientMetrics metrics;
+
+    public RiskLevelClient(WebClient webClient, ServiceClientProperties.Service service, ClientMetrics metrics) {
+        this.webClient = webClient;
+        this.baseUrl = service.getBaseUrl();
+        this.timeout = service.getTimeout();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Retrieves the risk level of a patient.
+     *
+     * @param patientId the ID of the patient
+     * @param sessionId the session ID forwarded as JSESSIONID cookie, or null
+     * @return a Mono emitting the formatted risk level
+     */
+    public Mono<String> getRiskLevel(String patientId, String sessionId) {
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
+                .uri(baseUrl + "?patientId={patientId}", patientId);
+        if (sessionId != null) {
+            request = request.cookie("JSESSIONID", sessionId);
+        }
+        return metrics.time(CLIENT, "get", request
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout));
+    }
+}
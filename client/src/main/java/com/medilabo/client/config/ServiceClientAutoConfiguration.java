@@ -0,0 +1,108 @@
+package com.medilabo.client.config;
+
+import com.medilabo.client.ClientMetrics;
+import com.medilabo.client.NoteClient;
+import com.medilabo.client.PatientClient;
+import com.medilabo.client.RiskLevelClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+
+/**
+ * Auto-configuration of the shared service clients.
+ * All clients share one WebClient backed by a bounded Reactor Netty connection pool: connections are kept alive
+ * and reused between calls, idle and old connections are evicted in the background, and a caller waits at most
+ * the pending acquire timeout for a connection instead of waiting forever when a downstream service is slow.
+ * The response timeout is set on each request from the settings of the service called, not on the shared client.
+ */
+@AutoConfiguration(after = WebClientAutoConfiguration.class)
+@EnableConfigurationProperties(ServiceClientProperties.class)
+public class ServiceClientAutoConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnMissingBean(name = "serviceClientConnectionProvider")
+    public ConnectionProvider serviceClientConnectionProvider(ServiceClientProperties properties) {
+        ServiceClientProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("medilabo-client")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "serviceWebClient")
+    public WebClient serviceWebClient(ObjectProvider<WebClient.Builder> builderProvider,
+                                      ConnectionProvider serviceClientConnectionProvider,
+                                      ServiceClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(serviceClientConnectionProvider)
+                .keepAlive(true)
+                .compress(properties.isCompression())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis());
+
+        // Clone Boot's builder to keep its codecs and customizers without altering the shared prototype
+        WebClient.Builder builder = builderProvider.getIfAvailable(WebClient::builder).clone();
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ClientMetrics clientMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ClientMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PatientClient patientClient(WebClient serviceWebClient, ServiceClientProperties properties, ClientMetrics clientMetrics) {
+        return new PatientClient(forService(serviceWebClient, properties.getPatient()), properties.getPatient(), clientMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public NoteClient noteClient(WebClient serviceWebClient, ServiceClientProperties properties, ClientMetrics clientMetrics) {
+        return new NoteClient(forService(serviceWebClient, properties.getNote()), properties.getNote(), clientMetrics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RiskLevelClient riskLevelClient(WebClient serviceWebClient, ServiceClientProperties properties, ClientMetrics clientMetrics) {
+        return new RiskLevelClient(forService(serviceWebClient, properties.getRisklevel()), properties.getRisklevel(), clientMetrics);
+    }
+
+    /**
+     * Derives the WebClient of one service from the shared one, keeping its connection pool,
+     * with the response timeout of the service set on every request.
+     *
+     * @param serviceWebClient the shared WebClient
+     * @param service the settings of the service
+     * @return the WebClient of the service
+     */
+    private static WebClient forService(WebClient serviceWebClient, ServiceClientProperties.Service service) {
+        Duration responseTimeout = service.getResponseTimeout();
+        return serviceWebClient.mutate()
+                .defaultRequest(request -> request.httpRequest(httpRequest -> {
+                    if (httpRequest.getNativeRequest() instanceof HttpClientRequest reactorRequest) {
+                        reactorRequest.responseTimeout(responseTimeout);
+                    }
+                }))
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.medilabo.client.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+
+/**
+ * Configuration properties of the shared service clients, under the prefix "medilabo.client".
+ * Defines the connection pool shared by all clients, the transport settings, and the base URL and timeouts of each service.
+ */
+@ConfigurationProperties(prefix = "medilabo.client")
+public class ServiceClientProperties {
+
+    private final Pool pool = new Pool();
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // Ask for gzip-compressed responses and decompress them
+    private boolean compression = true;
+
+    private final Service patient = new Service("http://gateway:8080/api/patients");
+    private final Service note = new Service("http://gateway:8080/api/notes");
+    private final Service risklevel = new Service("http://gateway:8080/api/risklevels");
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public Service getPatient() {
+        return patient;
+    }
+
+    public Service getNote() {
+        return note;
+    }
+
+    public Service getRisklevel() {
+        return risklevel;
+    }
+
+    /**
+     * Connection pool settings. Idle connections are kept alive and reused, and evicted in the background.
+     */
+    public static class Pool {
+        private int maxConnections = 200;
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public Duration getEvictInBackground() {
+            return evictInBackground;
+        }
+
+        public void setEvictInBackground(Duration evictInBackground) {
+            this.evictInBackground = evictInBackground;
+        }
+    }
+
+    /**
+     * Settings of one downstream service.
+     */
+    public static class Service {
+        private String baseUrl;
+
+        // Upper bound of a whole call, retrieval of the body included
+        private Duration timeout = Duration.ofSeconds(10);
+
+        // Maximum time without response data once the request is sent; the timeout of the call when not set
+        private Duration responseTimeout;
+
+        // Last responses kept with their ETag to revalidate them with If-None-Match; 0 disables conditional requests
+        private int conditionalCacheSize = 1000;
+
+        public Service(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout != null ? responseTimeout : timeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public int getConditionalCacheSize() {
+            return conditionalCacheSize;
+        }
+
+        public void setConditionalCacheSize(int conditionalCacheSize) {
+            this.conditionalCacheSize = conditionalCacheSize;
+        }
+    }
+}
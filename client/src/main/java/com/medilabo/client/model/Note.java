@@ -0,0 +1,24 @@
+package com.medilabo.client.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class Note {
+
+    private String id;
+    private String patientId;
+    private String noteContent;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private String noteDate;
+
+    // Trigger fingerprint computed by the note service at ingest
+    private List<String> triggers;
+    private String triggerSetVersion;
+
+    // Sequence number of the note write, to ask the note service for the notes written since
+    private Long seq;
+}
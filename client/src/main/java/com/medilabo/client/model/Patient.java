@@ -1,7 +1,5 @@
-package com.medilabo.frontend.model;
+package com.medilabo.client.model;
 
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -10,8 +8,6 @@ import lombok.Data;
 @Data
 public class Patient {
 
-
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotNull
@@ -34,4 +30,7 @@ public class Patient {
 
     @Pattern(regexp = "^\\+?[0-9. ()-]{7,25}$")
     private String phone;
-}
\ No newline at end of file
+
+    // Version the patient was read at, sent back on update so a concurrent change is detected
+    private Long version;
+}
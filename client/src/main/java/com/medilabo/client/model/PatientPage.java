@@ -0,0 +1,14 @@
+package com.medilabo.client.model;
+
+import java.util.List;
+
+
+/**
+ * One page of the patient listing.
+ *
+ * @param patients the patients of the page
+ * @param nextCursor the token to read the next page, or null if this page is the last one
+ * @param totalCount the total number of patients, or null if it was not requested
+ */
+public record PatientPage(List<Patient> patients, String nextCursor, Long totalCount) {
+}
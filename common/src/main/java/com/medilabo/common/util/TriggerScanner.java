@@ -0,0 +1,328 @@
+package com.medilabo.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Multi-pattern matcher counting how many distinct triggers appear in a text.
+ * The trigger set is compiled once into an Aho-Corasick automaton, so a note is scanned in a single
+ * pass whatever the number of triggers. Matching is case-insensitive and accent-insensitive:
+ * both triggers and text are folded character by character (e.g. "Cholestérol" matches "cholesterol"),
+ * and combining diacritical marks found in decomposed text are ignored.
+ * The version identifies the folded trigger set, so a result stored with a note can be trusted
+ * only by readers using a scanner of the same version.
+ */
+public class TriggerScanner {
+
+    // Folded form of every char below this bound is precomputed at class initialization
+    private static final int FOLD_TABLE_SIZE = 0x250;
+    private static final char[] FOLD_TABLE = buildFoldTable();
+
+    private final List<String> triggers;
+    private final List<String> foldedTriggers;
+    private final String version;
+
+    // Dense alphabet: folded char -> column in the transition table (0 = char used by no trigger)
+    private final int[] charClasses;
+    private final int alphabetSize;
+
+    // Complete DFA (goto + failure links resolved): transitions[state * alphabetSize + class]
+    private final int[] transitions;
+
+    // Trigger indices recognized when entering a state, dictionary suffix links included
+    private final int[][] outputs;
+
+    /**
+     * Compiles the automaton for the given triggers.
+     *
+     * @param triggers the trigger words or phrases to look for; blank entries are ignored
+     */
+    public TriggerScanner(Collection<String> triggers) {
+        List<String> folded = new ArrayList<>();
+        List<String> kept = new ArrayList<>();
+        for (String trigger : triggers) {
+            String foldedTrigger = fold(trigger);
+            if (!foldedTrigger.isBlank() && !folded.contains(foldedTrigger)) {
+                folded.add(foldedTrigger);
+                kept.add(trigger);
+            }
+        }
+        this.triggers = List.copyOf(kept);
+        this.foldedTriggers = List.copyOf(folded);
+        this.version = versionOf(folded);
+
+        // Build the alphabet from the folded triggers
+        int maxChar = 0;
+        for (String trigger : folded) {
+            for (int i = 0; i < trigger.length(); i++) {
+                maxChar = Math.max(maxChar, trigger.charAt(i));
+            }
+        }
+        this.charClasses = new int[maxChar + 1];
+        int classes = 1;
+        for (String trigger : folded) {
+            for (int i = 0; i < trigger.length(); i++) {
+                char c = trigger.charAt(i);
+                if (charClasses[c] == 0) {
+                    charClasses[c] = classes++;
+                }
+            }
+        }
+        this.alphabetSize = classes;
+
+        // Goto function as a trie, -1 meaning "no edge"
+        List<int[]> gotoRows = new ArrayList<>();
+        List<int[]> rawOutputs = new ArrayList<>();
+        gotoRows.add(newRow());
+        rawOutputs.add(new int[0]);
+        for (int index = 0; index < folded.size(); index++) {
+            String trigger = folded.get(index);
+            int state = 0;
+            for (int i = 0; i < trigger.length(); i++) {
+                int column = charClasses[trigger.charAt(i)];
+                int next = gotoRows.get(state)[column];
+                if (next < 0) {
+                    next = gotoRows.size();
+                    gotoRows.get(state)[column] = next;
+                    gotoRows.add(newRow());
+                    rawOutputs.add(new int[0]);
+                }
+                state = next;
+            }
+            rawOutputs.set(state, append(rawOutputs.get(state), index));
+        }
+
+        // Breadth-first pass resolving failure links into a complete transition table
+        int stateCount = gotoRows.size();
+        this.transitions = new int[stateCount * alphabetSize];
+        this.outputs = new int[stateCount][];
+        int[] failure = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        outputs[0] = rawOutputs.get(0);
+        for (int column = 0; column < alphabetSize; column++) {
+            int next = gotoRows.get(0)[column];
+            if (next > 0) {
+                failure[next] = 0;
+                queue.add(next);
+            }
+            transitions[column] = Math.max(next, 0);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = merge(rawOutputs.get(state), outputs[failure[state]]);
+            for (int column = 0; column < alphabetSize; column++) {
+                int next = gotoRows.get(state)[column];
+                int fallback = transitions[failure[state] * alphabetSize + column];
+                if (next > 0) {
+                    failure[next] = fallback;
+                    queue.add(next);
+                    transitions[state * alphabetSize + column] = next;
+                } else {
+                    transitions[state * alphabetSize + column] = fallback;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the distinct triggers present in the given text, each trigger counting at most once.
+     * Allocation-free for up to 64 triggers.
+     *
+     * @param text the text to scan, may be null
+     * @return the number of distinct triggers found
+     */
+    public int countDistinctTriggers(CharSequence text) {
+        if (text == null || triggers.isEmpty()) {
+            return 0;
+        }
+        if (triggers.size() <= Long.SIZE) {
+            return scanSmall(text);
+        }
+
+        return scan(text, new long[(triggers.size() + 63) >>> 6]);
+    }
+
+    /**
+     * Lists the distinct triggers present in the given text, in their folded form.
+     *
+     * @param text the text to scan, may be null
+     * @return the folded triggers found, in trigger set order
+     */
+    public List<String> findDistinctTriggers(CharSequence text) {
+        if (text == null || triggers.isEmpty()) {
+            return List.of();
+        }
+
+        long[] seen = new long[(triggers.size() + 63) >>> 6];
+        scan(text, seen);
+
+        List<String> found = new ArrayList<>();
+        for (int trigger = 0; trigger < triggers.size(); trigger++) {
+            if ((seen[trigger >>> 6] & (1L << trigger)) != 0) {
+                found.add(foldedTriggers.get(trigger));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Runs the automaton over the text, marking every trigger found in the given bit set.
+     *
+     * @param text the text to scan
+     * @param seen one bit per trigger, cleared on entry
+     * @return the number of distinct triggers found
+     */
+    private int scan(CharSequence text, long[] seen) {
+        int found = 0;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (isCombiningMark(c)) {
+                continue; // Decomposed accent: the base letter has already been consumed
+            }
+            state = transitions[state * alphabetSize + classOf(fold(c))];
+            for (int trigger : outputs[state]) {
+                long bit = 1L << trigger;
+                int word = trigger >>> 6;
+                if ((seen[word] & bit) == 0) {
+                    seen[word] |= bit;
+                    if (++found == triggers.size()) {
+                        return found; // Every trigger already matched, no need to read further
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Same as scan, keeping the seen triggers in a single long so that nothing is allocated.
+     *
+     * @param text the text to scan
+     * @return the number of distinct triggers found
+     */
+    private int scanSmall(CharSequence text) {
+        long seen = 0;
+        int found = 0;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (isCombiningMark(c)) {
+                continue;
+            }
+            state = transitions[state * alphabetSize + classOf(fold(c))];
+            for (int trigger : outputs[state]) {
+                long bit = 1L << trigger;
+                if ((seen & bit) == 0) {
+                    seen |= bit;
+                    if (++found == triggers.size()) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the triggers this scanner was compiled with, duplicates after folding removed
+     */
+    public List<String> getTriggers() {
+        return triggers;
+    }
+
+    /**
+     * @return an identifier of the folded trigger set, independent of the order of the triggers
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    private static String versionOf(List<String> foldedTriggers) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            foldedTriggers.stream().sorted().forEach(trigger -> {
+                digest.update(trigger.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            });
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private int classOf(char folded) {
+        return folded < charClasses.length ? charClasses[folded] : 0;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        int[] result = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, result, own.length, inherited.length);
+        return result;
+    }
+
+    /**
+     * Folds a whole string the same way scanned text is folded, dropping combining marks.
+     *
+     * @param value the string to fold
+     * @return the lower-case, accent-free form of the string
+     */
+    public static String fold(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isCombiningMark(c)) {
+                folded.append(fold(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Folds a single char to its lower-case, accent-free form.
+     *
+     * @param c the char to fold
+     * @return the folded char
+     */
+    public static char fold(char c) {
+        return c < FOLD_TABLE_SIZE ? FOLD_TABLE[c] : Character.toLowerCase(c);
+    }
+
+    private static boolean isCombiningMark(char c) {
+        return c >= '\u0300' && c <= '\u036F';
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[FOLD_TABLE_SIZE];
+        for (char c = 0; c < FOLD_TABLE_SIZE; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            table[c] = Character.toLowerCase(decomposed.charAt(0));
+        }
+        return table;
+    }
+}
@@ -0,0 +1,133 @@
+package com.medilabo.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TriggerScannerTest {
+
+    private static final List<String> SYMPTOMS = List.of(
+            "hémoglobine A1C", "microalbumine", "taille", "poids", "fumeur",
+            "fumeuse", "anormal", "cholestérol", "vertiges", "rechute",
+            "réaction", "anticorps"
+    );
+
+    @Test
+    void nestedAndOverlappingTriggersAreAllFound() {
+        TriggerScanner scanner = new TriggerScanner(List.of("hémoglobine A1C", "A1C", "globine", "réaction", "action"));
+
+        assertEquals(List.of("hemoglobine a1c", "a1c", "globine"),
+                scanner.findDistinctTriggers("Taux d'hémoglobine A1C élevé"));
+        assertEquals(3, scanner.countDistinctTriggers("Taux d'hémoglobine A1C élevé"));
+        // A suffix alone does not bring the longer trigger along
+        assertEquals(List.of("a1c"), scanner.findDistinctTriggers("A1C normale"));
+        assertEquals(List.of("reaction", "action"), scanner.findDistinctTriggers("Réaction cutanée"));
+    }
+
+    @Test
+    void triggersSharingAPrefixAreToldApart() {
+        TriggerScanner scanner = new TriggerScanner(SYMPTOMS);
+
+        assertEquals(List.of("fumeuse"), scanner.findDistinctTriggers("Patiente fumeuse"));
+        assertEquals(List.of("fumeur"), scanner.findDistinctTriggers("Ancien fumeur"));
+        assertEquals(List.of("fumeur", "fumeuse"), scanner.findDistinctTriggers("fumeufumeur et fumeuse"));
+    }
+
+    @Test
+    void upperCaseAndAccentsAreIgnored() {
+        TriggerScanner scanner = new TriggerScanner(SYMPTOMS);
+        String precomposed = "CHOLESTÉROL et HÉMOGLOBINE A1C, réaction";
+        String decomposed = Normalizer.normalize(precomposed, Normalizer.Form.NFD);
+
+        assertTrue(decomposed.length() > precomposed.length());
+        List<String> expected = List.of("hemoglobine a1c", "cholesterol", "reaction");
+        assertEquals(expected, scanner.findDistinctTriggers(precomposed));
+        assertEquals(expected, scanner.findDistinctTriggers(decomposed));
+        assertEquals(expected, scanner.findDistinctTriggers("cholesterol, hemoglobine a1c, reaction"));
+        assertEquals(3, scanner.countDistinctTriggers(decomposed));
+    }
+
+    @Test
+    void decomposedTriggersMatchPrecomposedText() {
+        TriggerScanner scanner = new TriggerScanner(List.of(Normalizer.normalize("Cholestérol", Normalizer.Form.NFD)));
+
+        assertEquals(List.of("cholesterol"), scanner.getTriggers().stream().map(TriggerScanner::fold).toList());
+        assertEquals(1, scanner.countDistinctTriggers("Cholestérol élevé"));
+    }
+
+    @Test
+    void triggersAtTheBoundsOfTheTextAreFound() {
+        TriggerScanner scanner = new TriggerScanner(SYMPTOMS);
+
+        assertEquals(1, scanner.countDistinctTriggers("vertiges"));
+        assertEquals(List.of("fumeur", "rechute"), scanner.findDistinctTriggers("Fumeur, puis rechute"));
+        assertEquals(0, scanner.countDistinctTriggers("rechut"));
+        assertEquals(0, scanner.countDistinctTriggers(""));
+        assertEquals(0, scanner.countDistinctTriggers(null));
+        assertEquals(List.of(), scanner.findDistinctTriggers(null));
+    }
+
+    @Test
+    void textOutsideTheTriggerAlphabetIsSkipped() {
+        TriggerScanner scanner = new TriggerScanner(SYMPTOMS);
+
+        assertEquals(2, scanner.countDistinctTriggers("体重 poids 吸烟 taille ✓"));
+    }
+
+    @Test
+    void moreThan64TriggersAreCounted() {
+        List<String> triggers = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            triggers.add(String.format("T%02dX", i));
+        }
+        TriggerScanner scanner = new TriggerScanner(triggers);
+
+        String text = "t05x, T64X puis t69x et encore t05x";
+        assertEquals(3, scanner.countDistinctTriggers(text));
+        assertEquals(List.of("t05x", "t64x", "t69x"), scanner.findDistinctTriggers(text));
+        // Triggers 0 and 64 share a bit position in their words of the bit set
+        assertEquals(List.of("t00x"), scanner.findDistinctTriggers("t00x"));
+        assertEquals(List.of("t64x"), scanner.findDistinctTriggers("t64x"));
+        assertEquals(70, scanner.countDistinctTriggers(String.join(" ", triggers)));
+    }
+
+    @Test
+    void countMatchesTheFoundTriggers() {
+        TriggerScanner scanner = new TriggerScanner(SYMPTOMS);
+        String text = "Le patient déclare qu'il ne se sent pas si fatigué que ça Fumeur, il a arrêté dans les 12 mois "
+                + "précédents Tests de laboratoire indiquant que les anticorps sont élevés, anticorps, poids";
+
+        assertEquals(List.of("poids", "fumeur", "anticorps"), scanner.findDistinctTriggers(text));
+        assertEquals(3, scanner.countDistinctTriggers(text));
+    }
+
+    @Test
+    void duplicateAndBlankTriggersAreIgnored() {
+        TriggerScanner scanner = new TriggerScanner(List.of("Fumeur", "fumeur", "FUMEUR", " ", ""));
+
+        assertEquals(List.of("Fumeur"), scanner.getTriggers());
+        assertEquals(1, scanner.countDistinctTriggers("fumeur fumeur"));
+    }
+
+    @Test
+    void versionDependsOnTheFoldedTriggerSetOnly() {
+        String version = new TriggerScanner(SYMPTOMS).getVersion();
+
+        List<String> reversed = new ArrayList<>(SYMPTOMS);
+        Collections.reverse(reversed);
+        assertEquals(version, new TriggerScanner(reversed).getVersion());
+        assertEquals(version, new TriggerScanner(SYMPTOMS.stream().map(String::toUpperCase).toList()).getVersion());
+        assertEquals(version, new TriggerScanner(SYMPTOMS).getVersion());
+        assertEquals(16, version.length());
+
+        assertNotEquals(version, new TriggerScanner(SYMPTOMS.subList(1, SYMPTOMS.size())).getVersion());
+        assertNotEquals(version, new TriggerScanner(List.of("tailles")).getVersion());
+    }
+}
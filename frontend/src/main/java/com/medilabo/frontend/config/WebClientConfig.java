@@ -1,20 +0,0 @@
-package com.medilabo.frontend.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
-
-
-/**
- * Configuration class for setting up the web client.
- * Provides a web client with no specific configuration.
- * The builder is injected by Spring and provides a default configuration.
- */
-@Configuration
-public class WebClientConfig {
-
-    @Bean
-    public WebClient webClient(WebClient.Builder builder) {
-        return builder.build();
-    }
-}
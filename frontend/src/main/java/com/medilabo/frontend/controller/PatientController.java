@@ -1,7 +1,8 @@
 package com.medilabo.frontend.controller;
 
-import com.medilabo.frontend.model.Note;
-import com.medilabo.frontend.model.Patient;
+import com.medilabo.client.model.Note;
+import com.medilabo.client.model.Patient;
+import com.medilabo.client.model.PatientPage;
 import com.medilabo.frontend.service.NoteService;
 import com.medilabo.frontend.service.PatientService;
 import com.medilabo.frontend.service.RisklevelService;
@@ -11,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
@@ -37,18 +39,27 @@ public class PatientController {
     private RisklevelService risklevelService;
 
     /**
-     * Displays the list of all patients.
+     * Displays one page of the list of patients.
      *
-     * @param model The model to which the list of patients will be added.
+     * @param sort The sort key, or null to sort by ID.
+     * @param direction The sort direction, or null for ascending.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param model The model to which the page of patients will be added.
      * @return The name of the view template to render.
      */
     @GetMapping()
-    public String listPatients(Model model) {
-        logger.info("Received request to display all patients");
+    public String listPatients(@RequestParam(required = false) String sort,
+                               @RequestParam(required = false) String direction,
+                               @RequestParam(required = false) String after,
+                               Model model) {
+        logger.info("Received request to display a page of patients");
 
         try {
-            List<Patient> patients = patientService.getAllPatients();
-            model.addAttribute("patients", patients);
+            PatientPage page = patientService.getPatientsPage(sort, direction, after);
+            model.addAttribute("patients", page.patients());
+            model.addAttribute("nextCursor", page.nextCursor());
+            model.addAttribute("sort", sort);
+            model.addAttribute("direction", direction);
             return "patient";
 
         } catch (Exception e) {
@@ -162,6 +173,11 @@ public class PatientController {
             // On successful update, redirect to the patients listing page
             return "redirect:http://localhost:8080/patients";
 
+        } catch (WebClientResponseException.Conflict e) {
+            // The patient was updated by someone else since the form was loaded: reload it with their changes
+            logger.warn("Patient with ID: {} was updated since the edit form was loaded", id);
+            return "redirect:http://localhost:8080/patients/edit/" + id + "?conflict=true";
+
         } catch (Exception e) {
             // Log the error details if something goes wrong during the update
             logger.error("Error occurred while updating patient with ID: {}", id, e);
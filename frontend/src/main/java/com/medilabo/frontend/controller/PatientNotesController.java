@@ -1,7 +1,7 @@
 package com.medilabo.frontend.controller;
 
 
-import com.medilabo.frontend.model.Note;
+import com.medilabo.client.model.Note;
 import com.medilabo.frontend.service.NoteService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -1,7 +1,7 @@
 package com.medilabo.frontend.service;
 
 
-import com.medilabo.frontend.model.Note;
+import com.medilabo.client.model.Note;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
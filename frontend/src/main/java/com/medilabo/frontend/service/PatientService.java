@@ -1,26 +1,27 @@
 package com.medilabo.frontend.service;
 
-import com.medilabo.frontend.model.Patient;
+import com.medilabo.client.model.Patient;
+import com.medilabo.client.model.PatientPage;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 
 /**
  * Service class for interacting with the patient service.
- * Provides methods for retrieving the list of all patients.
+ * Provides methods for retrieving the list of patients page by page.
  */
 @Service
 public interface PatientService {
 
     /**
-     * Retrieves a list of all patients by sending a GET request to the specified base URL.
-     * Uses WebClient to perform the request synchronously and retrieve the response as a Flux of Patient objects.
-     * Blocks until the response is received and then collects the list of patients.
+     * Retrieves one page of patients by sending a GET request to the specified base URL with the sort and cursor.
+     * Blocks until the response is received and then returns the page.
      *
-     * @return List of all patients retrieved from the service
+     * @param sort the sort key, or null to sort by ID
+     * @param direction the sort direction, or null for ascending
+     * @param after the cursor of the previous page, or null for the first page
+     * @return the page of patients retrieved from the service
      */
-    public List<Patient> getAllPatients();
+    public PatientPage getPatientsPage(String sort, String direction, String after);
 
     /**
      * Retrieves a patient by their ID by sending a GET request to the specified base URL with the ID as a path variable.
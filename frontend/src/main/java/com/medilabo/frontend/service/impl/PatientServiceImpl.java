@@ -1,114 +1,86 @@
 package com.medilabo.frontend.service.impl;
 
-import com.medilabo.frontend.config.PatientConfig;
-import com.medilabo.frontend.model.Patient;
+import com.medilabo.client.PatientClient;
+import com.medilabo.client.model.Patient;
+import com.medilabo.client.model.PatientPage;
 import com.medilabo.frontend.service.PatientService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
-import java.util.List;
 
 
 /**
  * Service class for interacting with the patient service.
- * Provides methods for retrieving the list of all patients.
+ * Delegates to the shared PatientClient and blocks on its results, within the timeout configured for the client.
  */
 @Service
 public class PatientServiceImpl implements PatientService {
 
-    @Autowired
-    private WebClient webClient;
-
-    private PatientConfig patientConfig;
-
-    @Autowired
-    private HttpServletRequest request;  // Inject HttpServletRequest to access cookies
+    private final PatientClient patientClient;
 
     @Autowired
-    public PatientServiceImpl(PatientConfig patientConfig) {
-        this.patientConfig = patientConfig;
+    public PatientServiceImpl(PatientClient patientClient) {
+        this.patientClient = patientClient;
     }
 
     /**
-     * Retrieves a list of all patients by sending a GET request to the specified base URL.
-     * Uses WebClient to perform the request synchronously and retrieve the response as a Flux of Patient objects.
-     * Blocks until the response is received and then collects the list of patients.
+     * Retrieves one page of patients from the patient service.
+     * Blocks until the response is received and then returns the page.
      *
-     * @return List of all patients retrieved from the service
+     * @param sort the sort key, or null to sort by ID
+     * @param direction the sort direction, or null for ascending
+     * @param after the cursor of the previous page, or null for the first page
+     * @return the page of patients retrieved from the service
      */
-    public List<Patient> getAllPatients() {
-        return webClient.get()
-                .uri(patientConfig.getBaseUrl())
-                .retrieve()
-                .bodyToFlux(Patient.class)
-                .collectList()
+    public PatientPage getPatientsPage(String sort, String direction, String after) {
+        return patientClient.getPatientsPage(sort, direction, after, null, false)
                 .block(); // Block for synchronous execution
     }
 
     /**
-     * Retrieves a patient by their ID by sending a GET request to the specified base URL with the ID as a path variable.
-     * Uses WebClient to perform the request synchronously and retrieve the response as a Mono of Patient objects.
+     * Retrieves a patient by their ID from the patient service.
      * Blocks until the response is received and then returns the patient.
      *
      * @param id the ID of the patient to retrieve
      * @return the patient retrieved from the service, or null if not found
      */
     public Patient getPatientById(String id) {
-        return webClient.get()
-                .uri(patientConfig.getBaseUrl() + "/" + id)
-                .retrieve()
-                .bodyToMono(Patient.class)
+        return patientClient.getPatient(id)
                 .block();
     }
 
     /**
-     * Creates a new patient by sending a POST request to the specified base URL with the provided patient as the request body.
-     * Uses WebClient to perform the request synchronously and retrieve the response as a Mono of Patient objects.
+     * Creates a new patient by sending it to the patient service.
      * Blocks until the response is received and then returns the created patient.
      *
      * @param patient the patient object to be created
      * @return the created patient retrieved from the service
      */
     public Patient createPatient(Patient patient) {
-        return webClient.post()
-                .uri(patientConfig.getBaseUrl())
-                .bodyValue(patient)
-                .retrieve()
-                .bodyToMono(Patient.class)
+        return patientClient.createPatient(patient)
                 .block();
     }
 
     /**
-     * Updates an existing patient by sending a PUT request to the specified base URL with the provided patient as the request body.
-     * Uses WebClient to perform the request synchronously and retrieve the response as a Mono of Patient objects.
+     * Updates an existing patient by sending it to the patient service.
      * Blocks until the response is received and then returns the updated patient.
      *
      * @param patient the patient object to be updated
      * @return the updated patient retrieved from the service
      */
     public Patient updatePatient(Patient patient) {
-        return webClient.put()
-                .uri(patientConfig.getBaseUrl() + "/" + patient.getId())
-                .bodyValue(patient)
-                .retrieve()
-                .bodyToMono(Patient.class)
+        return patientClient.updatePatient(patient)
                 .block();
     }
 
     /**
-     * Deletes a patient from the system by sending a DELETE request to the specified base URL with the ID of the patient to be deleted.
-     * Uses WebClient to perform the request synchronously and retrieve the response as a Mono of ResponseEntity.
-     * Blocks until the response is received and then returns void.
+     * Deletes a patient from the system through the patient service.
+     * Blocks until the deletion is acknowledged.
      *
      * @param id the ID of the patient to be deleted
      */
     public void deletePatient(String id) {
-        webClient.delete()
-                .uri(patientConfig.getBaseUrl() + "/" + id)
-                .retrieve()
-                .toBodilessEntity()
+        patientClient.deletePatient(id)
                 .block();
     }
 }
@@ -1,32 +1,28 @@
 package com.medilabo.frontend.service.impl;
 
-import com.medilabo.frontend.config.RisklevelConfig;
+import com.medilabo.client.RiskLevelClient;
 import com.medilabo.frontend.service.RisklevelService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 
 /**
  * Service implementation for interacting with the risk level service.
  * Retrieves the risk level for a specific patient identified by their ID.
- * Utilizes WebClient for making HTTP requests to the risk level service.
+ * Utilizes the shared RiskLevelClient for making HTTP requests to the risk level service.
  */
 @Service
 public class RisklevelServiceImpl implements RisklevelService {
 
-    @Autowired
-    private WebClient webClient;
-
-    private RisklevelConfig risklevelConfig;
+    private final RiskLevelClient riskLevelClient;
 
     @Autowired
     private HttpServletRequest request;  // Inject HttpServletRequest to access cookies
 
     @Autowired
-    public RisklevelServiceImpl(RisklevelConfig risklevelConfig) {
-        this.risklevelConfig = risklevelConfig;
+    public RisklevelServiceImpl(RiskLevelClient riskLevelClient) {
+        this.riskLevelClient = riskLevelClient;
     }
 
 
@@ -41,11 +37,7 @@ public class RisklevelServiceImpl implements RisklevelService {
 
         String sessionId = getSessionIdFromCookies();   // Retrieve session ID from cookies
 
-        return webClient.get()
-                .uri(risklevelConfig.getBaseUrl() + "?patientId=" + patientId)
-                .cookie("JSESSIONID", sessionId)
-                .retrieve()
-                .bodyToMono(String.class)
+        return riskLevelClient.getRiskLevel(patientId, sessionId)
                 .block();
     }
 
@@ -0,0 +1,43 @@
+package com.medilabo.note.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Configuration class for the bulk note ingestion.
+ * Notes are written by chunks of 'chunk-size'; at most 'max-reported-errors' failures are detailed in the response,
+ * the others being only counted. The note-created events of at most 'max-pending-events' patients are held back
+ * during an ingestion, to announce a patient once for consecutive chunks.
+ */
+@Component
+@ConfigurationProperties(prefix = "note.bulk")
+public class NoteBulkConfig {
+    private int chunkSize = 1000;
+    private int maxReportedErrors = 1000;
+    private int maxPendingEvents = 10000;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public int getMaxPendingEvents() {
+        return maxPendingEvents;
+    }
+
+    public void setMaxPendingEvents(int maxPendingEvents) {
+        this.maxPendingEvents = maxPendingEvents;
+    }
+}
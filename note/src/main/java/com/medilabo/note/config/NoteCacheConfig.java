@@ -0,0 +1,53 @@
+package com.medilabo.note.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Configuration class for the Redis cache of the patients' notes.
+ * Entries expire after 'ttl'. Patients with more than 'max-notes' notes, or whose notes take more than
+ * 'max-entry-bytes' once serialized, are not cached and always read from MongoDB.
+ */
+@Component
+@ConfigurationProperties(prefix = "note.cache")
+public class NoteCacheConfig {
+    private boolean enabled = true;
+    private Duration ttl = Duration.ofMinutes(10);
+    private int maxNotes = 500;
+    private int maxEntryBytes = 256 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaxNotes() {
+        return maxNotes;
+    }
+
+    public void setMaxNotes(int maxNotes) {
+        this.maxNotes = maxNotes;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public void setMaxEntryBytes(int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+    }
+}
@@ -0,0 +1,45 @@
+package com.medilabo.note.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Configuration class for the note change feed.
+ * Notes are only listed as changes once their sequence number is 'settle-time' old, so that a note whose insert
+ * is still in flight is not skipped by a reader already past a greater number. With 'backfill-on-startup',
+ * the notes stored before sequence numbers existed get one in the background, by batches of 'backfill-batch-size'.
+ */
+@Component
+@ConfigurationProperties(prefix = "note.changes")
+public class NoteChangesConfig {
+    private Duration settleTime = Duration.ofSeconds(2);
+    private boolean backfillOnStartup = true;
+    private int backfillBatchSize = 500;
+
+    public Duration getSettleTime() {
+        return settleTime;
+    }
+
+    public void setSettleTime(Duration settleTime) {
+        this.settleTime = settleTime;
+    }
+
+    public boolean isBackfillOnStartup() {
+        return backfillOnStartup;
+    }
+
+    public void setBackfillOnStartup(boolean backfillOnStartup) {
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    public int getBackfillBatchSize() {
+        return backfillBatchSize;
+    }
+
+    public void setBackfillBatchSize(int backfillBatchSize) {
+        this.backfillBatchSize = backfillBatchSize;
+    }
+}
@@ -0,0 +1,52 @@
+package com.medilabo.note.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Configuration class for the compression of the note content at rest.
+ * Contents of at least 'threshold' UTF-8 bytes are stored compressed. With 'migrate-on-startup',
+ * the notes stored plain before are compressed in the background, by batches of 'migration-batch-size'.
+ * Disabling the compression only affects writes: compressed notes are still read.
+ */
+@Component
+@ConfigurationProperties(prefix = "note.compression")
+public class NoteCompressionConfig {
+    private boolean enabled = true;
+    private int threshold = 2048;
+    private boolean migrateOnStartup = true;
+    private int migrationBatchSize = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public boolean isMigrateOnStartup() {
+        return migrateOnStartup;
+    }
+
+    public void setMigrateOnStartup(boolean migrateOnStartup) {
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    public int getMigrationBatchSize() {
+        return migrationBatchSize;
+    }
+
+    public void setMigrationBatchSize(int migrationBatchSize) {
+        this.migrationBatchSize = migrationBatchSize;
+    }
+}
@@ -0,0 +1,32 @@
+package com.medilabo.note.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Configuration class for the cursor-paginated notes API.
+ * A page request without limit gets the default size; larger limits are capped to the maximum size.
+ */
+@Component
+@ConfigurationProperties(prefix = "note.pagination")
+public class NotePaginationConfig {
+    private int defaultSize = 50;
+    private int maxSize = 500;
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public void setDefaultSize(int defaultSize) {
+        this.defaultSize = defaultSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,51 @@
+package com.medilabo.note.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Configuration class for the trigger fingerprint computed when a note is stored.
+ * The terms must be the ones used by the risk level analysis for the stored fingerprints to be reused;
+ * otherwise the versions differ and readers scan the note content instead.
+ */
+@Component
+@ConfigurationProperties(prefix = "note.triggers")
+public class NoteTriggerConfig {
+    private List<String> terms = new ArrayList<>(List.of(
+            "hémoglobine A1C", "microalbumine", "taille", "poids", "fumeur",
+            "fumeuse", "anormal", "cholestérol", "vertiges", "rechute",
+            "réaction", "anticorps"
+    ));
+
+    // Process the notes stored before fingerprints existed (or with another trigger set) at startup
+    private boolean backfillOnStartup = true;
+    private int backfillBatchSize = 500;
+
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public void setTerms(List<String> terms) {
+        this.terms = terms;
+    }
+
+    public boolean isBackfillOnStartup() {
+        return backfillOnStartup;
+    }
+
+    public void setBackfillOnStartup(boolean backfillOnStartup) {
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    public int getBackfillBatchSize() {
+        return backfillBatchSize;
+    }
+
+    public void setBackfillBatchSize(int backfillBatchSize) {
+        this.backfillBatchSize = backfillBatchSize;
+    }
+}
@@ -1,32 +1,196 @@
 package com.medilabo.note.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.medilabo.note.model.Note;
+import com.medilabo.note.model.NoteBulkResult;
+import com.medilabo.note.model.NoteChanges;
+import com.medilabo.note.model.NoteCursor;
+import com.medilabo.note.model.NoteProjection;
+import com.medilabo.note.service.NoteBulkService;
 import com.medilabo.note.service.NoteService;
+import com.medilabo.note.service.NoteVersionService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.Optional;
 
 
+/**
+ * Reactive controller for the notes.
+ * Lists are returned as Flux written to the response as they come off the database cursor,
+ * with the demand of the HTTP connection propagated back to the cursor.
+ */
 @RestController
 @RequestMapping("/api/notes")
 @Log4j2
 public class NoteController {
 
+    // Response header carrying the cursor of the next page, absent on the last page
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Response header carrying the number of the next page of search results, absent on the last page
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
+    // Response headers of the changes: the watermark to ask the next changes from, and whether more are available now
+    public static final String WATERMARK_HEADER = "X-Watermark";
+    public static final String MORE_HEADER = "X-More";
+
     @Autowired
     private NoteService noteService;
 
+    @Autowired
+    private NoteBulkService noteBulkService;
+
+    @Autowired
+    private NoteVersionService noteVersionService;
+
     /**
-     * Retrieves a list of notes based on the provided patient ID.
+     * Retrieves the notes of a patient, sorted by date, with the version of the patient's notes as a strong ETag.
+     * Spring answers NOT_MODIFIED when the If-None-Match header holds the current ETag, without reading the notes.
+     * With 'from' or 'to', returns only the notes dated within this inclusive range, without ETag.
      *
      * @param patientId The ID of the patient for whom notes are being retrieved
-     * @return An optional containing a list of notes associated with the patient ID, or empty if no notes are found
+     * @param from The first date of the range, in yyyy-MM-dd format
+     * @param to The last date of the range, in yyyy-MM-dd format
+     * @return The notes associated with the patient ID
+     */
+    @GetMapping(params = {"!after", "!limit", "!since"})
+    public Mono<ResponseEntity<Flux<Note>>> getNotesByPatientId(@RequestParam String patientId,
+                                                                @RequestParam(required = false) String from,
+                                                                @RequestParam(required = false) String to) {
+        if (from != null || to != null) {
+            return Mono.just(ResponseEntity.ok(noteService.getNotesByPatientIdBetween(patientId, from, to)));
+        }
+        return noteVersionService.getETag(patientId)
+                .map(eTag -> ResponseEntity.ok().eTag(eTag).body(noteService.getNotesByPatientId(patientId)));
+    }
+
+    /**
+     * Retrieves one page of the notes of a patient, in (noteDate, id) order,
+     * with the cursor of the next page in the X-Next-Cursor header.
+     *
+     * @param patientId The ID of the patient for whom notes are being retrieved
+     * @param after The cursor returned with the previous page, to read the following notes
+     * @param limit The maximum number of notes to return
+     * @return The page of notes associated with the patient ID
      */
     @GetMapping
-    public Optional<List<Note>> getNotesByPatientId(@RequestParam String patientId) {
-        return noteService.getNotesByPatientId(patientId);
+    public Mono<ResponseEntity<List<Note>>> getNotesPage(@RequestParam String patientId,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit) {
+        return Mono.fromCallable(() -> NoteCursor.decode(after))
+                .flatMap(cursor -> noteService.getNotesPage(patientId, cursor, limit))
+                .switchIfEmpty(Mono.defer(() -> noteService.getNotesPage(patientId, null, limit)))
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.nextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+                    }
+                    return response.body(page.notes());
+                });
+    }
+
+    /**
+     * Retrieves the notes of a patient written after a watermark, in sequence order, to keep a copy of the
+     * patient's notes current without reading them all again.
+     *
+     * @param patientId The ID of the patient for whom notes are being retrieved
+     * @param since The X-Watermark of the previous call, or 0 for the first one
+     * @param limit The maximum number of notes to return
+     * @return The notes written after the watermark, with the new watermark in the X-Watermark header
+     */
+    @GetMapping(params = "since")
+    public Mono<ResponseEntity<List<Note>>> getNotesSince(@RequestParam String patientId,
+                                                          @RequestParam long since,
+                                                          @RequestParam(required = false) Integer limit) {
+        return noteService.getChanges(patientId, since, limit).map(NoteController::toResponse);
+    }
+
+    /**
+     * Retrieves the notes of all patients written after a watermark, in sequence order.
+     * Readers page through the feed by passing back the X-Watermark of each response, right away while X-More
+     * is true, then periodically.
+     *
+     * @param since The X-Watermark of the previous call, or 0 to read the feed from the start
+     * @param limit The maximum number of notes to return
+     * @return The notes written after the watermark, with the new watermark in the X-Watermark header
+     */
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<List<Note>>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                       @RequestParam(required = false) Integer limit) {
+        return noteService.getChanges(null, since, limit).map(NoteController::toResponse);
+    }
+
+    private static ResponseEntity<List<Note>> toResponse(NoteChanges changes) {
+        return ResponseEntity.ok()
+                .header(WATERMARK_HEADER, String.valueOf(changes.watermark()))
+                .header(MORE_HEADER, String.valueOf(changes.more()))
+                .body(changes.notes());
+    }
+
+    /**
+     * Streams the notes of a patient as newline-delimited JSON, in (noteDate, id) order.
+     * Each note is written as soon as it is read from the database cursor.
+     *
+     * @param patientId The ID of the patient for whom notes are being retrieved
+     * @param after The cursor of the last note already read, to resume a stream
+     * @return The streamed notes
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Note> streamNotesByPatientId(@RequestParam String patientId,
+                                             @RequestParam(required = false) String after) {
+        return Flux.defer(() -> noteService.streamNotesByPatientId(patientId, NoteCursor.decode(after)));
+    }
+
+    /**
+     * Retrieves a lean view of the notes of a patient, sorted by date, for the risk level analysis.
+     * With the trigger set version used by the note service, returns only the triggers found in each note;
+     * otherwise returns only the content of each note. Conditional on the same ETag as the full list of notes.
+     *
+     * @param patientId The ID of the patient for whom notes are being retrieved
+     * @param triggerSetVersion The version of the caller's trigger set
+     * @return The projected notes associated with the patient ID
+     */
+    @GetMapping("/lean")
+    public Mono<ResponseEntity<Flux<NoteProjection>>> getNoteProjections(@RequestParam String patientId,
+                                                                         @RequestParam(required = false) String triggerSetVersion) {
+        return noteVersionService.getETag(patientId)
+                .map(eTag -> ResponseEntity.ok().eTag(eTag).body(noteService.getNoteProjections(patientId, triggerSetVersion)));
+    }
+
+    /**
+     * Searches the notes containing the words of a query, most relevant first, with the number of the next page
+     * in the X-Next-Page header. Each note carries its relevance score.
+     *
+     * @param query The words to search for
+     * @param patientId The ID of the patient whose notes are searched, all patients if absent
+     * @param from The first date of the range, in yyyy-MM-dd format
+     * @param to The last date of the range, in yyyy-MM-dd format
+     * @param page The number of the page, starting from 0
+     * @param size The maximum number of notes to return
+     * @return The page of matching notes
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Note>>> searchNotes(@RequestParam String query,
+                                                        @RequestParam(required = false) String patientId,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to,
+                                                        @RequestParam(required = false) Integer page,
+                                                        @RequestParam(required = false) Integer size) {
+        return noteService.searchNotes(query, patientId, from, to, page, size)
+                .map(result -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (result.nextPage() != null) {
+                        response.header(NEXT_PAGE_HEADER, String.valueOf(result.nextPage()));
+                    }
+                    return response.body(result.notes());
+                });
     }
 
     /**
@@ -36,7 +200,41 @@ public class NoteController {
      * @return The saved note object
      */
     @PostMapping
-    public Note addNote(@RequestBody Note note) {
+    public Mono<Note> addNote(@RequestBody Note note) {
         return noteService.save(note);
     }
+
+    /**
+     * Adds many notes in a single request, typically to migrate existing records.
+     * The body, a JSON array or newline-delimited JSON, is decoded as a stream and written by chunks,
+     * so it is never held in memory as a whole. Rejected notes are reported without stopping the ingestion.
+     *
+     * @param body The notes of the request body
+     * @return The counts of received, inserted and failed notes with the failure details,
+     * with a bad request status if the body could not be read to the end
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<NoteBulkResult>> addNotes(@RequestBody Flux<JsonNode> body) {
+        return noteBulkService.insertAll(body)
+                .map(result -> {
+                    if (result.aborted() != null) {
+                        log.warn("Bulk note ingestion aborted: {}", result.aborted());
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+                    }
+                    return ResponseEntity.ok(result);
+                });
+    }
+
+    /**
+     * Answers a bad request status to invalid parameters (missing patient ID or query, malformed cursor or date,
+     * invalid limit or page).
+     *
+     * @param e the validation error
+     * @return a bad request response carrying the error message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        log.warn("Invalid notes request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
 }
@@ -0,0 +1,43 @@
+package com.medilabo.note.event;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Publishes note events on Redis so that dependent services (e.g. risklevel) can refresh their data.
+ * The message is the ID of the patient the note belongs to.
+ * A publication failure is logged and never fails the note operation.
+ */
+@Component
+@Log4j2
+public class NoteEventPublisher {
+
+    public static final String NOTE_CREATED = "note-created";
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    /**
+     * Announces that a note was added for the given patient.
+     *
+     * @param patientId the ID of the patient the note belongs to
+     * @return a Mono completing once the event is published, or failed to be
+     */
+    public Mono<Void> publishNoteCreated(String patientId) {
+        if (patientId == null) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.convertAndSend(NOTE_CREATED, patientId)
+                .doOnSuccess(receivers -> log.debug("Published {} for patient ID: {}", NOTE_CREATED, patientId))
+                .onErrorResume(e -> {
+                    log.warn("Failed to publish {} for patient ID: {}", NOTE_CREATED, patientId, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
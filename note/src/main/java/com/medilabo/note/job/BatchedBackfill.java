@@ -0,0 +1,52 @@
+package com.medilabo.note.job;
+
+import reactor.core.publisher.Mono;
+
+
+/**
+ * A migration of the stored notes run in batches in _id order, each batch starting after the last note of the previous
+ * one, so no batch reads the collection from the start again. Implementations supply a single batch;
+ * BatchedBackfillRunner repeats it until a batch comes back short, once the application is ready.
+ */
+public interface BatchedBackfill {
+
+    /**
+     * Returns the name of the backfill, as it appears in the logs.
+     *
+     * @return the name of the backfill
+     */
+    String getName();
+
+    /**
+     * Tells whether the backfill runs when the application starts.
+     *
+     * @return true if the backfill is enabled on startup
+     */
+    boolean isEnabledOnStartup();
+
+    /**
+     * Returns the maximum number of notes read by a batch.
+     *
+     * @return the batch size
+     */
+    int getBatchSize();
+
+    /**
+     * Runs one batch.
+     *
+     * @param lastId the _id of the last note read by the previous batch, null for the first batch
+     * @param batchSize the maximum number of notes to read
+     * @return a Mono of the outcome of the batch
+     */
+    Mono<Batch> backfillBatch(Object lastId, int batchSize);
+
+    /**
+     * Outcome of a batch.
+     *
+     * @param read the number of notes read; fewer than the batch size ends the backfill
+     * @param lastId the _id of the last note read
+     * @param updated the number of notes updated
+     */
+    record Batch(int read, Object lastId, long updated) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.medilabo.note.job;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Runs the batched backfills enabled on startup once the application is ready, in the background.
+ * They are stopped with the application; an interrupted backfill starts over on the next startup.
+ */
+@Component
+@Log4j2
+public class BatchedBackfillRunner {
+
+    @Autowired
+    private List<BatchedBackfill> backfills;
+
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        for (BatchedBackfill backfill : backfills) {
+            if (backfill.isEnabledOnStartup()) {
+                subscriptions.add(run(backfill)
+                        .subscribe(null, e -> log.error("{} failed: {}", backfill.getName(), e.getMessage(), e)));
+            }
+        }
+    }
+
+    /**
+     * Repeats the batches of a backfill, each starting after the last note of the previous one,
+     * until a batch reads fewer notes than the batch size.
+     *
+     * @param backfill the backfill to run
+     * @return a Mono emitting the number of notes updated
+     */
+    private Mono<Long> run(BatchedBackfill backfill) {
+        int batchSize = Math.max(1, backfill.getBatchSize());
+        AtomicReference<Object> lastId = new AtomicReference<>();
+        AtomicLong updated = new AtomicLong();
+
+        return Mono.defer(() -> backfill.backfillBatch(lastId.get(), batchSize))
+                .doOnNext(batch -> {
+                    lastId.set(batch.lastId());
+                    updated.addAndGet(batch.updated());
+                })
+                .repeat()
+                .takeUntil(batch -> batch.read() < batchSize)
+                .then(Mono.fromSupplier(updated::get))
+                .doOnNext(count -> log.info("{} done, {} notes updated", backfill.getName(), count));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+}
@@ -1,12 +1,26 @@
 package com.medilabo.note.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
+import java.time.Instant;
+import java.util.List;
 
-@Document(collection = "note")
+
+// The text index stems the search terms as French words
+@Document(collection = "note", language = "french")
+// Serves the patient lookups sorted or filtered by date; _id ends the key so the (noteDate, id) cursor order is indexed too
+@CompoundIndex(name = "patientId_noteDate", def = "{ 'patientId': 1, 'noteDate': 1, '_id': 1 }")
+// Serves the changes of one patient since a sequence number
+@CompoundIndex(name = "patientId_seq", def = "{ 'patientId': 1, 'seq': 1 }")
 @Data
 public class Note {
 
@@ -18,4 +32,28 @@ public class Note {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private String noteDate;
 
+    // Folded triggers found in noteContent, computed at ingest
+    private List<String> triggers;
+
+    // Version of the trigger set the fingerprint was computed with
+    private String triggerSetVersion;
+
+    // Distinct words of noteContent, computed at ingest; the text index is built on them as the content may be compressed.
+    // Repetitions are not kept, so the text score only reflects which searched words a note contains
+    @TextIndexed
+    @JsonIgnore
+    private List<String> searchTerms;
+
+    // Position of the note in the sequence of note writes, across all patients; a later write gets a greater number
+    @Indexed(name = "seq", unique = true, sparse = true)
+    private Long seq;
+
+    // Time the sequence number was allocated
+    private Instant createdAt;
+
+    // Relevance of the note to a full-text search, only set in search results
+    @TextScore
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float score;
+
 }
@@ -0,0 +1,25 @@
+package com.medilabo.note.model;
+
+import java.util.List;
+
+
+/**
+ * Outcome of a bulk note ingestion.
+ *
+ * @param received the number of notes read from the request
+ * @param inserted the number of notes stored
+ * @param failed the number of notes rejected or not stored
+ * @param errors the details of the first failures
+ * @param aborted the reason the request body could not be read to the end, or null if it was
+ */
+public record NoteBulkResult(long received, long inserted, long failed, List<Failure> errors, String aborted) {
+
+    /**
+     * Failure of one note of the request.
+     *
+     * @param index the position of the note in the request, starting at 0
+     * @param message the reason of the failure
+     */
+    public record Failure(long index, String message) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.medilabo.note.model;
+
+import java.util.List;
+
+
+/**
+ * Notes written after a watermark, in sequence order.
+ *
+ * @param notes the notes written after the watermark
+ * @param watermark the sequence number to ask the next changes from: the one of the last note returned,
+ *                  or the requested watermark if none was
+ * @param more whether more changes can be read right away
+ */
+public record NoteChanges(List<Note> notes, long watermark, boolean more) {
+}
@@ -0,0 +1,59 @@
+package com.medilabo.note.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+
+/**
+ * Position of a note in the (noteDate, id) order of a patient's notes, exchanged with clients as an opaque token.
+ * Reading "after" a cursor returns the notes strictly following this position, so a page boundary stays stable
+ * when notes are added meanwhile.
+ *
+ * @param noteDate the date of the last note read, or null if it has none
+ * @param id the ID of the last note read
+ */
+public record NoteCursor(String noteDate, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static NoteCursor of(Note note) {
+        return new NoteCursor(note.getNoteDate(), note.getId());
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     *
+     * @return the token to send to the client
+     */
+    public String encode() {
+        String value = (noteDate == null ? "" : noteDate) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by encode().
+     *
+     * @param token the token sent back by the client, or null
+     * @return the cursor, or null if no token is given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static NoteCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+
+        int separator = value.indexOf(SEPARATOR);
+        if (separator < 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        String noteDate = value.substring(0, separator);
+        return new NoteCursor(noteDate.isEmpty() ? null : noteDate, value.substring(separator + 1));
+    }
+}
@@ -0,0 +1,13 @@
+package com.medilabo.note.model;
+
+import java.util.List;
+
+
+/**
+ * One page of a patient's notes, in (noteDate, id) order.
+ *
+ * @param notes the notes of the page
+ * @param nextCursor the token to read the next page, or null if this page is the last one
+ */
+public record NotePage(List<Note> notes, String nextCursor) {
+}
@@ -0,0 +1,20 @@
+package com.medilabo.note.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+
+/**
+ * Lean view of a note, carrying only what the risk level analysis needs.
+ * Either the triggers found in the note with the version of their trigger set, or the note content
+ * when the reader's trigger set differs; absent fields are not serialized.
+ *
+ * @param id the ID of the note
+ * @param noteContent the content of the note, or null when triggers are given
+ * @param triggers the folded triggers found in the note, or null when the content is given
+ * @param triggerSetVersion the version of the trigger set the triggers were computed with
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NoteProjection(String id, String noteContent, List<String> triggers, String triggerSetVersion) {
+}
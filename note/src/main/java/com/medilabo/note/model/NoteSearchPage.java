@@ -0,0 +1,13 @@
+package com.medilabo.note.model;
+
+import java.util.List;
+
+
+/**
+ * One page of the notes matching a full-text search, most relevant first.
+ *
+ * @param notes the notes of the page, with their relevance score
+ * @param nextPage the number of the next page, or null if this page is the last one
+ */
+public record NoteSearchPage(List<Note> notes, Integer nextPage) {
+}
@@ -0,0 +1,17 @@
+package com.medilabo.note.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+
+// Counter allocating the sequence numbers of the note writes
+@Document(collection = "note_sequence")
+@Data
+public class NoteSequence {
+
+    @Id
+    private String id;
+    private long value;
+
+}
@@ -0,0 +1,17 @@
+package com.medilabo.note.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+
+// Counter of the note writes of a patient, identifying the state of the patient's notes for conditional requests
+@Document(collection = "note_version")
+@Data
+public class NoteVersion {
+
+    @Id
+    private String patientId;
+    private long version;
+
+}
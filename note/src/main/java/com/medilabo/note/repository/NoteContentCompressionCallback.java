@@ -0,0 +1,65 @@
+package com.medilabo.note.repository;
+
+import com.medilabo.note.config.NoteCompressionConfig;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.util.NoteContentCodec;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveAfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Compresses the content of large notes in the stored document, and restores it when a note is read.
+ * Runs for every write and read of the Note entity (repository, template, bulk operations and aggregations
+ * mapped to Note), so the rest of the service only ever sees the plain content.
+ */
+@Component
+public class NoteContentCompressionCallback implements ReactiveBeforeSaveCallback<Note>, ReactiveAfterConvertCallback<Note> {
+
+    @Autowired
+    private NoteCompressionConfig noteCompressionConfig;
+
+    /**
+     * Replaces the content of the document to store by its compressed form, if large enough.
+     * The entity keeps its plain content.
+     */
+    @Override
+    public Publisher<Note> onBeforeSave(Note entity, Document document, String collection) {
+        if (noteCompressionConfig.isEnabled()) {
+            byte[] compressed = NoteContentCodec.compress(entity.getNoteContent(), noteCompressionConfig.getThreshold());
+            if (compressed != null) {
+                document.remove("noteContent");
+                document.put(NoteContentCodec.COMPRESSED_FIELD, new Binary(compressed));
+                document.put(NoteContentCodec.CODEC_FIELD, NoteContentCodec.DEFLATE);
+            }
+        }
+        return Mono.just(entity);
+    }
+
+    /**
+     * Restores the content of a note read from a compressed document.
+     */
+    @Override
+    public Publisher<Note> onAfterConvert(Note entity, Document document, String collection) {
+        if (entity.getNoteContent() == null) {
+            byte[] compressed = compressedContent(document.get(NoteContentCodec.COMPRESSED_FIELD));
+            if (compressed != null) {
+                entity.setNoteContent(NoteContentCodec.decompress(compressed, document.getString(NoteContentCodec.CODEC_FIELD)));
+            }
+        }
+        return Mono.just(entity);
+    }
+
+    // The driver decodes generic binary data as Binary, but converters may already have turned it into bytes
+    private static byte[] compressedContent(Object value) {
+        if (value instanceof Binary binary) {
+            return binary.getData();
+        }
+        return value instanceof byte[] bytes ? bytes : null;
+    }
+}
@@ -1,12 +1,24 @@
 package com.medilabo.note.repository;
 
 import com.medilabo.note.model.Note;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 
-import java.util.List;
-import java.util.Optional;
+public interface NoteRepository extends ReactiveMongoRepository<Note, String> {
 
-public interface NoteRepository extends MongoRepository<Note, String> {
+    /**
+     * Finds the notes of a patient sorted by date, then by ID for notes of the same day.
+     * Served by the (patientId, noteDate) index, without in-memory sort.
+     * The search terms, only used by the text index, are not read.
+     */
+    @Query(value = "{ 'patientId': ?0 }", fields = "{ 'searchTerms': 0 }", sort = "{ 'noteDate': 1, '_id': 1 }")
+    Flux<Note> findByPatientIdOrderByNoteDateAscIdAsc(String patientId);
 
-    Optional<List<Note>> findByPatientId(String patientId);
+    /**
+     * Finds the notes of a patient dated within a range, sorted by date then by ID.
+     * Both bounds are inclusive dates in yyyy-MM-dd format.
+     */
+    @Query(value = "{ 'patientId': ?0, 'noteDate': { $gte: ?1, $lte: ?2 } }", fields = "{ 'searchTerms': 0 }", sort = "{ 'noteDate': 1, '_id': 1 }")
+    Flux<Note> findByPatientIdAndNoteDateBetween(String patientId, String from, String to);
 }
@@ -0,0 +1,13 @@
+package com.medilabo.note.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medilabo.note.model.NoteBulkResult;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public interface NoteBulkService {
+
+    Mono<NoteBulkResult> insertAll(Flux<JsonNode> body);
+}
@@ -0,0 +1,15 @@
+package com.medilabo.note.service;
+
+import com.medilabo.note.model.Note;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public interface NoteCacheService {
+
+    Mono<List<Note>> getNotesByPatientId(String patientId, Mono<List<Note>> loader);
+
+    Mono<Void> evict(String patientId);
+}
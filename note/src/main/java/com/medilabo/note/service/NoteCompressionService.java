@@ -0,0 +1,8 @@
+package com.medilabo.note.service;
+
+import com.medilabo.note.job.BatchedBackfill;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface NoteCompressionService extends BatchedBackfill {
+}
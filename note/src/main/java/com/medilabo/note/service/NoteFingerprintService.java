@@ -0,0 +1,13 @@
+package com.medilabo.note.service;
+
+import com.medilabo.note.job.BatchedBackfill;
+import com.medilabo.note.model.Note;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface NoteFingerprintService extends BatchedBackfill {
+
+    Note fingerprint(Note note);
+
+    String getTriggerSetVersion();
+}
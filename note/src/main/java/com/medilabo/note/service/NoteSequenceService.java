@@ -0,0 +1,14 @@
+package com.medilabo.note.service;
+
+import com.medilabo.note.job.BatchedBackfill;
+import com.medilabo.note.model.Note;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public interface NoteSequenceService extends BatchedBackfill {
+
+    Mono<List<Note>> sequence(List<Note> notes);
+}
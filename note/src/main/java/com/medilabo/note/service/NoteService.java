@@ -1,15 +1,31 @@
 package com.medilabo.note.service;
 
 import com.medilabo.note.model.Note;
+import com.medilabo.note.model.NoteChanges;
+import com.medilabo.note.model.NoteCursor;
+import com.medilabo.note.model.NotePage;
+import com.medilabo.note.model.NoteProjection;
+import com.medilabo.note.model.NoteSearchPage;
 import org.springframework.stereotype.Service;
-
-import java.util.List;
-import java.util.Optional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public interface NoteService {
 
-    Optional<List<Note>> getNotesByPatientId(String patientId);
+    Flux<Note> getNotesByPatientId(String patientId);
+
+    Flux<Note> getNotesByPatientIdBetween(String patientId, String from, String to);
+
+    Mono<NotePage> getNotesPage(String patientId, NoteCursor after, Integer limit);
+
+    Flux<Note> streamNotesByPatientId(String patientId, NoteCursor after);
+
+    Flux<NoteProjection> getNoteProjections(String patientId, String triggerSetVersion);
+
+    Mono<NoteChanges> getChanges(String patientId, long since, Integer limit);
+
+    Mono<NoteSearchPage> searchNotes(String query, String patientId, String from, String to, Integer page, Integer size);
 
-    Note save(Note note);
+    Mono<Note> save(Note note);
 }
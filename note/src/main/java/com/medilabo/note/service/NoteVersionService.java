@@ -0,0 +1,12 @@
+package com.medilabo.note.service;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public interface NoteVersionService {
+
+    Mono<String> getETag(String patientId);
+
+    Mono<Void> increment(String patientId);
+}
@@ -0,0 +1,269 @@
+package com.medilabo.note.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.note.config.NoteBulkConfig;
+import com.medilabo.note.event.NoteEventPublisher;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.model.NoteBulkResult;
+import com.medilabo.note.service.NoteBulkService;
+import com.medilabo.note.service.NoteCacheService;
+import com.medilabo.note.service.NoteFingerprintService;
+import com.medilabo.note.service.NoteSequenceService;
+import com.medilabo.note.service.NoteVersionService;
+import com.medilabo.note.util.SearchTerms;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Service implementation ingesting large numbers of notes in a single request.
+ * The request body, a JSON array or newline-delimited JSON, is decoded one note at a time and written by chunks
+ * with unordered bulk inserts. Only one chunk is written at a time and the body is only read as chunks are written,
+ * so a client sending faster than MongoDB absorbs is slowed down by the connection itself, and memory stays
+ * bounded by the chunk size and the number of pending note-created events.
+ * A rejected note (invalid, duplicate ID...) is reported with its position and never stops the ingestion.
+ */
+@Service
+@Log4j2
+public class NoteBulkServiceImpl implements NoteBulkService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteFingerprintService noteFingerprintService;
+
+    @Autowired
+    private NoteEventPublisher noteEventPublisher;
+
+    @Autowired
+    private NoteCacheService noteCacheService;
+
+    @Autowired
+    private NoteVersionService noteVersionService;
+
+    @Autowired
+    private NoteSequenceService noteSequenceService;
+
+    @Autowired
+    private NoteBulkConfig noteBulkConfig;
+
+    /**
+     * Reads and stores every note of the request body.
+     * Each note is fingerprinted and gets its search terms as in a single save, and the patient's cached notes are
+     * evicted as each chunk is written. The note-created events are held back in a window of at most
+     * 'note.bulk.max-pending-events' patients, so a patient spread over consecutive chunks is announced once;
+     * when the window is full, the patients held the longest are announced first, and the rest at the end of the
+     * request, whether it succeeds or fails. A patient announced early and getting notes again is announced again.
+     * If the body cannot be read to the end (malformed JSON, interrupted upload), the notes read so far are still stored
+     * and the result tells where the reading stopped.
+     *
+     * @param body the notes of the request body, as JSON trees
+     * @return a Mono of the counts of received, inserted and failed notes, with the details of the first failures
+     */
+    @Override
+    public Mono<NoteBulkResult> insertAll(Flux<JsonNode> body) {
+        int chunkSize = Math.max(1, noteBulkConfig.getChunkSize());
+        int maxPendingEvents = Math.max(0, noteBulkConfig.getMaxPendingEvents());
+
+        return Mono.defer(() -> {
+            Progress progress = new Progress(noteBulkConfig.getMaxReportedErrors());
+
+            return body
+                    .onErrorResume(e -> {
+                        progress.aborted = "Unreadable request body at note " + progress.received + ": " + e.getMessage();
+                        return Flux.empty();
+                    })
+                    .<IndexedNote>handle((node, sink) -> {
+                        IndexedNote note = toNote(progress.received++, node, progress);
+                        if (note != null) {
+                            sink.next(note);
+                        }
+                    })
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> write(chunk, progress).then(publishPending(progress, maxPendingEvents)), 1)
+                    // The chunks written before a failure are announced as well
+                    .onErrorResume(e -> publishPending(progress, 0).then(Mono.error(e)))
+                    .then(publishPending(progress, 0))
+                    .then(Mono.fromSupplier(() -> {
+                        log.info("Bulk note ingestion done: {} received, {} inserted, {} failed",
+                                progress.received, progress.inserted, progress.failed);
+                        return new NoteBulkResult(progress.received, progress.inserted, progress.failed,
+                                progress.errors, progress.aborted);
+                    }));
+        });
+    }
+
+    /**
+     * Maps and fingerprints one note of the request, recording it as failed if it is invalid.
+     *
+     * @param index the position of the note in the request
+     * @param node the note as a JSON tree
+     * @param progress the ingestion progress
+     * @return the note to insert, or null if it is rejected
+     */
+    private IndexedNote toNote(long index, JsonNode node, Progress progress) {
+        Note note;
+        try {
+            note = objectMapper.treeToValue(node, Note.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            progress.fail(index, "Invalid note: " + e.getMessage());
+            return null;
+        }
+
+        if (note == null || note.getPatientId() == null || note.getPatientId().isEmpty()) {
+            progress.fail(index, "Patient ID cannot be empty");
+            return null;
+        }
+        note.setSearchTerms(SearchTerms.of(note.getNoteContent()));
+        return new IndexedNote(index, noteFingerprintService.fingerprint(note));
+    }
+
+    /**
+     * Numbers the notes of one chunk and inserts them with an unordered bulk write, so a rejected note does not prevent the others from being stored,
+     * then increments the notes version of the patients who got at least one note and evicts their cached notes.
+     * These patients are added to the pending note-created events of the progress.
+     *
+     * @param chunk the notes to insert, with their position in the request
+     * @param progress the ingestion progress to update
+     * @return a Mono completing once the chunk is written
+     */
+    private Mono<Void> write(List<IndexedNote> chunk, Progress progress) {
+        List<Note> notes = new ArrayList<>(chunk.size());
+        for (IndexedNote indexedNote : chunk) {
+            notes.add(indexedNote.note());
+        }
+
+        return noteSequenceService.sequence(notes)
+                .flatMap(numbered -> {
+                    ReactiveBulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+                    operations.insert(numbered);
+                    return operations.execute();
+                })
+                .map(result -> new PartialWrite(result.getInsertedCount(), List.of()))
+                .onErrorResume(e -> {
+                    PartialWrite partialWrite = partialWrite(e);
+                    if (partialWrite == null) {
+                        return Mono.error(e);
+                    }
+                    for (BulkWriteError error : partialWrite.errors()) {
+                        progress.fail(chunk.get(error.getIndex()).index(), error.getMessage());
+                    }
+                    return Mono.just(partialWrite);
+                })
+                .flatMap(written -> {
+                    progress.inserted += written.inserted();
+                    if (written.inserted() == 0) {
+                        return Mono.empty();
+                    }
+                    // Error indexes are positions in the chunk, as the notes were inserted in chunk order
+                    Set<Integer> failedIndexes = new HashSet<>();
+                    for (BulkWriteError error : written.errors()) {
+                        failedIndexes.add(error.getIndex());
+                    }
+                    Set<String> patientIds = new LinkedHashSet<>();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        if (!failedIndexes.contains(i)) {
+                            patientIds.add(chunk.get(i).note().getPatientId());
+                        }
+                    }
+                    progress.pendingEvents.addAll(patientIds);
+                    return Flux.fromIterable(patientIds)
+                            .concatMap(patientId -> noteVersionService.increment(patientId)
+                                    .then(noteCacheService.evict(patientId)))
+                            .then();
+                });
+    }
+
+    /**
+     * Publishes the note-created events of the patients held the longest, until at most the given number are pending.
+     *
+     * @param progress the ingestion progress holding the pending events
+     * @param keep the number of events that may stay pending
+     * @return a Mono publishing the events when subscribed, and completing once they are published
+     */
+    private Mono<Void> publishPending(Progress progress, int keep) {
+        return Mono.defer(() -> {
+            List<String> due = new ArrayList<>();
+            Iterator<String> pending = progress.pendingEvents.iterator();
+            while (progress.pendingEvents.size() > keep) {
+                due.add(pending.next());
+                pending.remove();
+            }
+            return Flux.fromIterable(due)
+                    .concatMap(noteEventPublisher::publishNoteCreated)
+                    .then();
+        });
+    }
+
+    /**
+     * Extracts the outcome of a bulk write that failed for some notes only.
+     * The error may come translated by Spring Data, with the driver exception as cause.
+     *
+     * @param error the error raised by the bulk write
+     * @return the number of notes inserted and the errors of the others, or null for any other error
+     */
+    private static PartialWrite partialWrite(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                return new PartialWrite(bulkWriteException.getWriteResult().getInsertedCount(), bulkWriteException.getWriteErrors());
+            }
+            if (cause instanceof BulkOperationException bulkOperationException) {
+                return new PartialWrite(bulkOperationException.getResult().getInsertedCount(), bulkOperationException.getErrors());
+            }
+        }
+        return null;
+    }
+
+    private record IndexedNote(long index, Note note) {
+    }
+
+    private record PartialWrite(int inserted, List<BulkWriteError> errors) {
+    }
+
+    /**
+     * Counters of an ingestion, keeping the details of the first failures only,
+     * and the patients whose new notes are not announced yet, in the order they got them.
+     */
+    private static class Progress {
+        private final int maxReportedErrors;
+        private final List<NoteBulkResult.Failure> errors = new ArrayList<>();
+        private final Set<String> pendingEvents = new LinkedHashSet<>();
+        private long received;
+        private long inserted;
+        private long failed;
+        private String aborted;
+
+        private Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long index, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new NoteBulkResult.Failure(index, message));
+            }
+        }
+    }
+}
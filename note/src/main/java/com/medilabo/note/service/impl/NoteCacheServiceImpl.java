@@ -0,0 +1,162 @@
+package com.medilabo.note.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.note.config.NoteCacheConfig;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.service.NoteCacheService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+
+/**
+ * Service implementation of a read-through Redis cache of the notes of each patient.
+ * A patient's entry is stored next to a generation counter, incremented by every eviction. A reader only
+ * stores the notes it loaded if the generation did not change since it missed the cache, so notes loaded
+ * before a save can never be cached after the save evicted the entry.
+ * Redis failures are logged and the notes read from MongoDB: the cache never fails a request.
+ */
+@Service
+@Log4j2
+public class NoteCacheServiceImpl implements NoteCacheService {
+
+    private static final TypeReference<List<Note>> NOTE_LIST = new TypeReference<>() {
+    };
+
+    // Stores the entry only if the generation is still the one observed on the miss ('' when absent)
+    private static final RedisScript<Long> FILL = RedisScript.of("""
+            local generation = redis.call('GET', KEYS[2])
+            if (generation or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // Bumps the generation and drops the entry in one step
+    private static final RedisScript<Long> EVICT = RedisScript.of("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteCacheConfig noteCacheConfig;
+
+    /**
+     * Returns the cached notes of a patient, or loads and caches them on a miss.
+     * The entry and the generation are read in a single round trip.
+     *
+     * @param patientId the ID of the patient
+     * @param loader the notes of the patient read from MongoDB, subscribed on a miss only
+     * @return a Mono of the notes of the patient
+     */
+    @Override
+    public Mono<List<Note>> getNotesByPatientId(String patientId, Mono<List<Note>> loader) {
+        if (!noteCacheConfig.isEnabled() || patientId == null) {
+            return loader;
+        }
+
+        String entryKey = entryKey(patientId);
+        String generationKey = generationKey(patientId);
+
+        return redisTemplate.opsForValue().multiGet(List.of(entryKey, generationKey))
+                .onErrorResume(e -> {
+                    log.warn("Failed to read the notes cache for patient ID: {}", patientId, e);
+                    return Mono.empty();
+                })
+                .flatMap(values -> {
+                    List<Note> notes = values.get(0) == null ? null : deserialize(values.get(0), patientId);
+                    if (notes != null) {
+                        return Mono.just(notes);
+                    }
+                    String generation = values.get(1) == null ? "" : values.get(1);
+                    return loader.flatMap(loaded -> fill(entryKey, generationKey, generation, loaded, patientId)
+                            .thenReturn(loaded));
+                })
+                .switchIfEmpty(Mono.defer(() -> loader));
+    }
+
+    /**
+     * Drops the cached notes of a patient, typically after one of them was written.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono completing once the entry is dropped, or failed to be
+     */
+    @Override
+    public Mono<Void> evict(String patientId) {
+        if (!noteCacheConfig.isEnabled() || patientId == null) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.execute(EVICT, List.of(entryKey(patientId), generationKey(patientId)),
+                        List.of(String.valueOf(noteCacheConfig.getTtl().toMillis())))
+                .onErrorResume(e -> {
+                    log.warn("Failed to evict the notes cache for patient ID: {}", patientId, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Stores the loaded notes of a patient, unless they exceed the size limits or the entry was evicted meanwhile.
+     */
+    private Mono<Void> fill(String entryKey, String generationKey, String generation, List<Note> notes, String patientId) {
+        if (notes.size() > noteCacheConfig.getMaxNotes()) {
+            return Mono.empty();
+        }
+
+        String value;
+        try {
+            value = objectMapper.writerFor(NOTE_LIST).writeValueAsString(notes);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize the notes of patient ID: {}", patientId, e);
+            return Mono.empty();
+        }
+        // A string has at least as many UTF-8 bytes as chars, so longer strings are rejected before encoding
+        if (value.length() > noteCacheConfig.getMaxEntryBytes()
+                || value.getBytes(StandardCharsets.UTF_8).length > noteCacheConfig.getMaxEntryBytes()) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.execute(FILL, List.of(entryKey, generationKey),
+                        List.of(generation, value, String.valueOf(noteCacheConfig.getTtl().toMillis())))
+                .onErrorResume(e -> {
+                    log.warn("Failed to fill the notes cache for patient ID: {}", patientId, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private List<Note> deserialize(String value, String patientId) {
+        try {
+            return objectMapper.readValue(value, NOTE_LIST);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring an unreadable notes cache entry for patient ID: {}", patientId, e);
+            return null;
+        }
+    }
+
+    // Both keys share the {patientId} hash tag, so the scripts also run on a Redis cluster
+    private static String entryKey(String patientId) {
+        return "notes:{" + patientId + "}";
+    }
+
+    private static String generationKey(String patientId) {
+        return "notes:{" + patientId + "}:generation";
+    }
+}
@@ -0,0 +1,107 @@
+package com.medilabo.note.service.impl;
+
+import com.medilabo.note.config.NoteCompressionConfig;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.service.NoteCompressionService;
+import com.medilabo.note.util.NoteContentCodec;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+
+/**
+ * Service implementation compressing the content of the notes stored plain before the compression existed
+ * (or before the threshold was lowered). New notes are compressed when saved, by NoteContentCompressionCallback.
+ */
+@Service
+public class NoteCompressionServiceImpl implements NoteCompressionService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private NoteCompressionConfig noteCompressionConfig;
+
+    @Override
+    public String getName() {
+        return "Note content compression";
+    }
+
+    @Override
+    public boolean isEnabledOnStartup() {
+        return noteCompressionConfig.isEnabled() && noteCompressionConfig.isMigrateOnStartup();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return noteCompressionConfig.getMigrationBatchSize();
+    }
+
+    /**
+     * Compresses one batch of the plain notes whose content reaches the threshold.
+     * Notes are read in _id order, so notes that do not get smaller are not read again,
+     * and updated with an unordered bulk write. An update only applies if the content did not change in between.
+     *
+     * @param lastId the _id of the last note read by the previous batch, null for the first batch
+     * @param batchSize the maximum number of notes to read
+     * @return a Mono of the outcome of the batch
+     */
+    @Override
+    public Mono<Batch> backfillBatch(Object lastId, int batchSize) {
+        int threshold = noteCompressionConfig.getThreshold();
+        // Sizes are checked by the database, so only the large notes are transferred
+        Criteria criteria = Criteria.where("noteContent").type(2)
+                .andOperator(Criteria.expr(() -> new Document("$gte", List.of(
+                        new Document("$strLenBytes", new Document("$ifNull", List.of("$noteContent", ""))), threshold))));
+        if (lastId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("_id").gt(lastId));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+        query.fields().include("noteContent");
+
+        // Compression runs on the parallel scheduler rather than on the driver's I/O threads
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Note.class))
+                .collectList()
+                .publishOn(Schedulers.parallel())
+                .flatMap(documents -> {
+                    if (documents.isEmpty()) {
+                        return Mono.just(new Batch(0, lastId, 0));
+                    }
+                    Object last = documents.get(documents.size() - 1).get("_id");
+
+                    ReactiveBulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+                    int updates = 0;
+                    for (Document document : documents) {
+                        String content = document.getString("noteContent");
+                        byte[] bytes = NoteContentCodec.compress(content, threshold);
+                        if (bytes == null) {
+                            continue;
+                        }
+                        operations.updateOne(
+                                Query.query(Criteria.where("_id").is(document.get("_id")).and("noteContent").is(content)),
+                                new Update()
+                                        .set(NoteContentCodec.COMPRESSED_FIELD, new Binary(bytes))
+                                        .set(NoteContentCodec.CODEC_FIELD, NoteContentCodec.DEFLATE)
+                                        .unset("noteContent"));
+                        updates++;
+                    }
+                    if (updates == 0) {
+                        return Mono.just(new Batch(documents.size(), last, 0));
+                    }
+                    return operations.execute()
+                            .map(result -> new Batch(documents.size(), last, result.getModifiedCount()));
+                });
+    }
+}
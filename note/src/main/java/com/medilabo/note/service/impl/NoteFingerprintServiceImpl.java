@@ -0,0 +1,126 @@
+package com.medilabo.note.service.impl;
+
+import com.medilabo.common.util.TriggerScanner;
+import com.medilabo.note.config.NoteTriggerConfig;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.service.NoteFingerprintService;
+import com.medilabo.note.util.NoteContentCodec;
+import com.medilabo.note.util.SearchTerms;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+
+/**
+ * Service implementation computing the trigger fingerprint of notes.
+ * The fingerprint (the folded triggers found in the note and the version of the trigger set) is stored
+ * next to the note content, so readers can count triggers without processing the text again.
+ */
+@Service
+public class NoteFingerprintServiceImpl implements NoteFingerprintService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private final NoteTriggerConfig noteTriggerConfig;
+
+    private final TriggerScanner triggerScanner;
+
+    @Autowired
+    public NoteFingerprintServiceImpl(NoteTriggerConfig noteTriggerConfig) {
+        this.noteTriggerConfig = noteTriggerConfig;
+        this.triggerScanner = new TriggerScanner(noteTriggerConfig.getTerms());
+    }
+
+    /**
+     * Sets the trigger fingerprint of a note from its content.
+     *
+     * @param note the note to fingerprint
+     * @return the same note, with triggers and triggerSetVersion set
+     */
+    @Override
+    public Note fingerprint(Note note) {
+        note.setTriggers(triggerScanner.findDistinctTriggers(note.getNoteContent()));
+        note.setTriggerSetVersion(triggerScanner.getVersion());
+        return note;
+    }
+
+    /**
+     * Returns the version of the trigger set used to fingerprint the notes.
+     *
+     * @return the version of the configured trigger set
+     */
+    @Override
+    public String getTriggerSetVersion() {
+        return triggerScanner.getVersion();
+    }
+
+    @Override
+    public String getName() {
+        return "Trigger fingerprint backfill (version " + triggerScanner.getVersion() + ")";
+    }
+
+    @Override
+    public boolean isEnabledOnStartup() {
+        return noteTriggerConfig.isBackfillOnStartup();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return noteTriggerConfig.getBackfillBatchSize();
+    }
+
+    /**
+     * Fingerprints one batch of the notes lacking a fingerprint of the current version, and sets the search terms
+     * of the notes stored before the full-text search existed.
+     * Notes are read in _id order with only their content (plain or compressed) and updated with an unordered bulk
+     * write; as the batch starts after the last note of the previous one, a note that the update leaves outdated
+     * is not read twice.
+     *
+     * @param lastId the _id of the last note read by the previous batch, null for the first batch
+     * @param batchSize the maximum number of notes to update
+     * @return a Mono of the outcome of the batch
+     */
+    @Override
+    public Mono<Batch> backfillBatch(Object lastId, int batchSize) {
+        String version = triggerScanner.getVersion();
+        Criteria criteria = new Criteria().orOperator(
+                Criteria.where("triggerSetVersion").ne(version),
+                Criteria.where("searchTerms").exists(false));
+        if (lastId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("_id").gt(lastId));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+        query.fields().include("noteContent", NoteContentCodec.COMPRESSED_FIELD, NoteContentCodec.CODEC_FIELD);
+
+        // The notes are scanned on the parallel scheduler rather than on the driver's I/O threads
+        return mongoTemplate.find(query, Note.class)
+                .collectList()
+                .publishOn(Schedulers.parallel())
+                .flatMap(notes -> {
+                    if (notes.isEmpty()) {
+                        return Mono.just(new Batch(0, lastId, 0));
+                    }
+
+                    ReactiveBulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+                    for (Note note : notes) {
+                        operations.updateOne(
+                                Query.query(Criteria.where("_id").is(note.getId())),
+                                new Update()
+                                        .set("triggers", triggerScanner.findDistinctTriggers(note.getNoteContent()))
+                                        .set("triggerSetVersion", version)
+                                        .set("searchTerms", SearchTerms.of(note.getNoteContent())));
+                    }
+                    return operations.execute()
+                            .map(result -> new Batch(notes.size(), notes.get(notes.size() - 1).getId(), result.getModifiedCount()));
+                });
+    }
+}
@@ -0,0 +1,141 @@
+package com.medilabo.note.service.impl;
+
+import com.medilabo.note.config.NoteChangesConfig;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.model.NoteSequence;
+import com.medilabo.note.service.NoteSequenceService;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+
+/**
+ * Service implementation of the sequence numbers of the note writes.
+ * Numbers come from a single counter document, incremented atomically by the number of notes of each write,
+ * so a save costs one more round trip and a bulk chunk as well, whatever its size.
+ */
+@Service
+public class NoteSequenceServiceImpl implements NoteSequenceService {
+
+    private static final String COUNTER_ID = "note";
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private NoteChangesConfig noteChangesConfig;
+
+    /**
+     * Sets the next sequence numbers and the current time on notes about to be written.
+     *
+     * @param notes the notes to number, in write order
+     * @return a Mono of the same notes, numbered
+     */
+    @Override
+    public Mono<List<Note>> sequence(List<Note> notes) {
+        if (notes.isEmpty()) {
+            return Mono.just(notes);
+        }
+
+        return allocate(notes.size())
+                .map(first -> {
+                    Instant now = Instant.now();
+                    long seq = first;
+                    for (Note note : notes) {
+                        note.setSeq(seq++);
+                        note.setCreatedAt(now);
+                    }
+                    return notes;
+                });
+    }
+
+    @Override
+    public String getName() {
+        return "Note sequence backfill";
+    }
+
+    @Override
+    public boolean isEnabledOnStartup() {
+        return noteChangesConfig.isBackfillOnStartup();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return noteChangesConfig.getBackfillBatchSize();
+    }
+
+    /**
+     * Numbers one batch of the notes written before sequence numbers existed, in _id order.
+     * Their creation time is taken from their ObjectId when they have one.
+     * The batch starts after the last note of the previous one: 'seq exists false' cannot use the sparse seq index,
+     * so the _id range keeps every batch from scanning the collection from the start again.
+     *
+     * @param lastId the _id of the last note read by the previous batch, null for the first batch
+     * @param batchSize the maximum number of notes to number
+     * @return a Mono of the outcome of the batch
+     */
+    @Override
+    public Mono<Batch> backfillBatch(Object lastId, int batchSize) {
+        Criteria criteria = Criteria.where("seq").exists(false);
+        if (lastId != null) {
+            criteria = criteria.and("_id").gt(lastId);
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        query.fields().include("_id");
+
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Note.class))
+                .collectList()
+                .flatMap(documents -> {
+                    if (documents.isEmpty()) {
+                        return Mono.just(new Batch(0, lastId, 0));
+                    }
+                    Object last = documents.get(documents.size() - 1).get("_id");
+
+                    return allocate(documents.size()).flatMap(first -> {
+                        Instant now = Instant.now();
+                        ReactiveBulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+                        long seq = first;
+                        for (Document document : documents) {
+                            Object id = document.get("_id");
+                            // Guarded on the number still missing, in case the note was saved again meanwhile
+                            operations.updateOne(
+                                    Query.query(Criteria.where("_id").is(id).and("seq").exists(false)),
+                                    new Update()
+                                            .set("seq", seq++)
+                                            .set("createdAt", id instanceof ObjectId objectId ? objectId.getDate().toInstant() : now));
+                        }
+                        return operations.execute()
+                                .map(result -> new Batch(documents.size(), last, result.getModifiedCount()));
+                    });
+                });
+    }
+
+    /**
+     * Reserves a range of sequence numbers.
+     *
+     * @param count the number of sequence numbers to reserve
+     * @return a Mono of the first number of the range
+     */
+    private Mono<Long> allocate(int count) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(COUNTER_ID)),
+                        new Update().inc("value", count),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        NoteSequence.class)
+                .map(sequence -> sequence.getValue() - count + 1);
+    }
+}
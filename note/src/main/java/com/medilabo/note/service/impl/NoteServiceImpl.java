@@ -1,60 +1,377 @@
 package com.medilabo.note.service.impl;
 
+import com.medilabo.note.config.NoteChangesConfig;
+import com.medilabo.note.config.NotePaginationConfig;
+import com.medilabo.note.event.NoteEventPublisher;
 import com.medilabo.note.model.Note;
+import com.medilabo.note.model.NoteChanges;
+import com.medilabo.note.model.NoteCursor;
+import com.medilabo.note.model.NotePage;
+import com.medilabo.note.model.NoteProjection;
+import com.medilabo.note.model.NoteSearchPage;
 import com.medilabo.note.repository.NoteRepository;
+import com.medilabo.note.service.NoteCacheService;
+import com.medilabo.note.service.NoteFingerprintService;
+import com.medilabo.note.service.NoteSequenceService;
 import com.medilabo.note.service.NoteService;
+import com.medilabo.note.service.NoteVersionService;
+import com.medilabo.note.util.NoteContentCodec;
+import com.medilabo.note.util.SearchTerms;
 import lombok.extern.log4j.Log4j2;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Optional;
 
 
+/**
+ * Service implementation for the notes, on the reactive MongoDB driver.
+ * Nothing blocks: reads are Flux backed by the database cursor, which only fetches the next batch of notes
+ * once the client consumed the previous ones.
+ */
 @Service
 @Log4j2
 public class NoteServiceImpl implements NoteService {
 
+    // Bounds of an open date range, in yyyy-MM-dd format
+    private static final String MIN_DATE = "0000-01-01";
+    private static final String MAX_DATE = "9999-12-31";
+
     @Autowired
     private NoteRepository noteRepository;
 
+    @Autowired
+    private NoteEventPublisher noteEventPublisher;
+
+    @Autowired
+    private NoteFingerprintService noteFingerprintService;
+
+    @Autowired
+    private NoteCacheService noteCacheService;
+
+    @Autowired
+    private NoteVersionService noteVersionService;
+
+    @Autowired
+    private NoteSequenceService noteSequenceService;
+
+    @Autowired
+    private NoteChangesConfig noteChangesConfig;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotePaginationConfig notePaginationConfig;
+
+    /**
+     * Retrieves the notes associated with a specific patient ID, sorted by date.
+     * Served from the Redis cache when the patient's notes did not change since they were last read.
+     *
+     * @param patientId The ID of the patient to retrieve notes for
+     * @return A Flux of the notes of the patient, empty if none are found
+     * @throws IllegalArgumentException if the patientId is null
+     */
+    @Override
+    public Flux<Note> getNotesByPatientId(String patientId) {
+
+        if (patientId == null) {
+            return Flux.error(new IllegalArgumentException("Patient ID cannot be null"));
+        }
+
+        return noteCacheService.getNotesByPatientId(patientId,
+                        Mono.defer(() -> noteRepository.findByPatientIdOrderByNoteDateAscIdAsc(patientId).collectList()))
+                .flatMapMany(notes -> {
+                    if (notes.isEmpty()) {
+                        log.warn("No notes found for patient ID: {}", patientId);
+                    }
+                    return Flux.fromIterable(notes);
+                });
+    }
+
+    /**
+     * Retrieves the notes of a patient dated within a range, sorted by date.
+     * A missing bound leaves the range open on that side.
+     *
+     * @param patientId The ID of the patient to retrieve notes for
+     * @param from The first date of the range, inclusive, in yyyy-MM-dd format, or null
+     * @param to The last date of the range, inclusive, in yyyy-MM-dd format, or null
+     * @return A Flux of the notes of the patient within the range
+     * @throws IllegalArgumentException if the patientId is null or a bound is not a yyyy-MM-dd date
+     */
+    @Override
+    public Flux<Note> getNotesByPatientIdBetween(String patientId, String from, String to) {
+        if (patientId == null) {
+            return Flux.error(new IllegalArgumentException("Patient ID cannot be null"));
+        }
+
+        // Dates are stored as yyyy-MM-dd strings, whose lexicographic order is the chronological one
+        return Flux.defer(() -> noteRepository.findByPatientIdAndNoteDateBetween(patientId,
+                from == null ? MIN_DATE : checkDate(from), to == null ? MAX_DATE : checkDate(to)));
+    }
+
+    private static String checkDate(String date) {
+        try {
+            return LocalDate.parse(date).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date, e);
+        }
+    }
+
+    /**
+     * Retrieves one page of the notes of a patient, in (noteDate, id) order.
+     * Reads one note beyond the page to know whether another page follows, without counting the notes.
+     *
+     * @param patientId The ID of the patient to retrieve notes for
+     * @param after The position of the last note already read, or null to start from the first note
+     * @param limit The maximum number of notes of the page, or null for the default size; capped to the maximum size
+     * @return A Mono of the page of notes, with the cursor of the next page if there is one
+     * @throws IllegalArgumentException if the patientId is null or the limit is not positive
+     */
+    @Override
+    public Mono<NotePage> getNotesPage(String patientId, NoteCursor after, Integer limit) {
+        if (patientId == null) {
+            return Mono.error(new IllegalArgumentException("Patient ID cannot be null"));
+        }
+        if (limit != null && limit < 1) {
+            return Mono.error(new IllegalArgumentException("Limit must be positive"));
+        }
+
+        int size = Math.min(limit == null ? notePaginationConfig.getDefaultSize() : limit, notePaginationConfig.getMaxSize());
+        return mongoTemplate.find(notesAfter(patientId, after).limit(size + 1), Note.class)
+                .collectList()
+                .map(notes -> {
+                    if (notes.size() <= size) {
+                        return new NotePage(notes, null);
+                    }
+                    List<Note> page = notes.subList(0, size);
+                    return new NotePage(page, NoteCursor.of(page.get(size - 1)).encode());
+                });
+    }
+
     /**
-     * Retrieves a list of notes associated with a specific patient ID.
+     * Streams the notes of a patient, in (noteDate, id) order, straight from the database cursor.
      *
      * @param patientId The ID of the patient to retrieve notes for
-     * @return An Optional containing the list of notes if found, empty otherwise
+     * @param after The position of the last note already read, or null to start from the first note
+     * @return A Flux of the notes of the patient
      * @throws IllegalArgumentException if the patientId is null
      */
     @Override
-    public Optional<List<Note>> getNotesByPatientId(String patientId) {
+    public Flux<Note> streamNotesByPatientId(String patientId, NoteCursor after) {
+        if (patientId == null) {
+            return Flux.error(new IllegalArgumentException("Patient ID cannot be null"));
+        }
+
+        return mongoTemplate.find(notesAfter(patientId, after), Note.class);
+    }
 
+    /**
+     * Retrieves a lean view of the notes of a patient, sorted by date, projected by the database.
+     * When the caller uses the same trigger set as the note service, only the triggers of each note are returned:
+     * stored fingerprints are read without the content, and the few notes not fingerprinted with the current
+     * trigger set yet (before the backfill) are fingerprinted here. Otherwise, only the content is returned.
+     *
+     * @param patientId The ID of the patient to retrieve notes for
+     * @param triggerSetVersion The version of the caller's trigger set, or null
+     * @return A Flux of the projected notes of the patient
+     * @throws IllegalArgumentException if the patientId is null
+     */
+    @Override
+    public Flux<NoteProjection> getNoteProjections(String patientId, String triggerSetVersion) {
         if (patientId == null) {
-            throw new IllegalArgumentException("Patient ID cannot be null");
+            return Flux.error(new IllegalArgumentException("Patient ID cannot be null"));
+        }
+
+        String currentVersion = noteFingerprintService.getTriggerSetVersion();
+        if (!currentVersion.equals(triggerSetVersion)) {
+            Query query = new Query(Criteria.where("patientId").is(patientId))
+                    .with(Sort.by(Sort.Direction.ASC, "noteDate", "id"));
+            query.fields().include("noteContent", NoteContentCodec.COMPRESSED_FIELD, NoteContentCodec.CODEC_FIELD);
+
+            return mongoTemplate.find(query, Note.class)
+                    .map(note -> new NoteProjection(note.getId(), note.getNoteContent(), null, null));
+        }
+
+        // The content, plain or compressed, only leaves the database for the notes whose fingerprint is outdated
+        Document upToDate = new Document("$eq", List.of("$triggerSetVersion", currentVersion));
+        Document project = new Document("triggers", 1)
+                .append("triggerSetVersion", 1);
+        for (String field : List.of("noteContent", NoteContentCodec.COMPRESSED_FIELD, NoteContentCodec.CODEC_FIELD)) {
+            project.append(field, new Document("$cond", List.of(upToDate, "$$REMOVE", "$" + field)));
         }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("patientId").is(patientId)),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "noteDate", "_id")),
+                Aggregation.stage(new Document("$project", project)));
 
-        Optional<List<Note>> notes = noteRepository.findByPatientId(patientId);
+        return mongoTemplate.aggregate(aggregation, Note.class, Note.class)
+                .map(note -> {
+                    if (!currentVersion.equals(note.getTriggerSetVersion())) {
+                        noteFingerprintService.fingerprint(note);
+                    }
+                    return new NoteProjection(note.getId(), null, note.getTriggers(), currentVersion);
+                });
+    }
 
-        if (notes.isPresent()) {
-            log.info("Notes found for patient ID: {}", patientId);
-        } else {
-            log.warn("No notes found for patient ID: {}", patientId);
+    /**
+     * Searches the notes containing words of a query, most relevant first, with the text index on the search terms.
+     * Words are matched regardless of case, accents and French inflections; a word prefixed with '-' excludes
+     * the notes containing it.
+     * Relevance only counts which searched words a note contains, as the search terms hold each word once;
+     * notes of equal relevance are sorted by ID, so that pages neither repeat nor skip a note.
+     * Reads one note beyond the page to know whether another page follows, without counting the matches.
+     *
+     * @param query The words to search for
+     * @param patientId The ID of the patient whose notes are searched, or null for all patients
+     * @param from The first date of the range, inclusive, in yyyy-MM-dd format, or null
+     * @param to The last date of the range, inclusive, in yyyy-MM-dd format, or null
+     * @param page The number of the page, starting from 0, or null for the first page
+     * @param size The maximum number of notes of the page, or null for the default size; capped to the maximum size
+     * @return A Mono of the page of matching notes, with their relevance score
+     * @throws IllegalArgumentException if the query is blank, a bound is not a yyyy-MM-dd date, the page is negative
+     * or the size is not positive
+     */
+    @Override
+    public Mono<NoteSearchPage> searchNotes(String query, String patientId, String from, String to, Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Search query cannot be empty"));
+        }
+        if (page != null && page < 0) {
+            return Mono.error(new IllegalArgumentException("Page cannot be negative"));
+        }
+        if (size != null && size < 1) {
+            return Mono.error(new IllegalArgumentException("Size must be positive"));
+        }
+
+        int pageSize = Math.min(size == null ? notePaginationConfig.getDefaultSize() : size, notePaginationConfig.getMaxSize());
+        int pageNumber = page == null ? 0 : page;
+
+        return Mono.defer(() -> {
+            TextQuery textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query)).sortByScore();
+            textQuery.with(Sort.by(Sort.Direction.ASC, "id"));
+            if (patientId != null) {
+                textQuery.addCriteria(Criteria.where("patientId").is(patientId));
+            }
+            if (from != null || to != null) {
+                textQuery.addCriteria(Criteria.where("noteDate")
+                        .gte(from == null ? MIN_DATE : checkDate(from))
+                        .lte(to == null ? MAX_DATE : checkDate(to)));
+            }
+            textQuery.skip((long) pageNumber * pageSize).limit(pageSize + 1);
+            textQuery.fields().exclude("searchTerms");
+
+            return mongoTemplate.find(textQuery, Note.class)
+                    .collectList()
+                    .map(notes -> notes.size() <= pageSize
+                            ? new NoteSearchPage(notes, null)
+                            : new NoteSearchPage(notes.subList(0, pageSize), pageNumber + 1));
+        });
+    }
+
+    /**
+     * Retrieves the notes written after a watermark, of one patient or of all patients, in sequence order.
+     * A note saved again is listed again, with a new sequence number. The changes stop before the first note
+     * younger than the settle time, so that a write still in flight with a smaller number is never skipped;
+     * such notes are listed by a later call.
+     *
+     * @param patientId The ID of the patient whose changes are read, or null for all patients
+     * @param since The sequence number of the last change already read, 0 to read from the first note
+     * @param limit The maximum number of notes, or null for the default size; capped to the maximum size
+     * @return A Mono of the changes, with the watermark to read the next ones from
+     * @throws IllegalArgumentException if the watermark is negative or the limit is not positive
+     */
+    @Override
+    public Mono<NoteChanges> getChanges(String patientId, long since, Integer limit) {
+        if (since < 0) {
+            return Mono.error(new IllegalArgumentException("Watermark cannot be negative"));
+        }
+        if (limit != null && limit < 1) {
+            return Mono.error(new IllegalArgumentException("Limit must be positive"));
+        }
+
+        int size = Math.min(limit == null ? notePaginationConfig.getDefaultSize() : limit, notePaginationConfig.getMaxSize());
+        Criteria criteria = patientId == null
+                ? Criteria.where("seq").gt(since)
+                : Criteria.where("patientId").is(patientId).and("seq").gt(since);
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "seq")).limit(size + 1);
+        query.fields().exclude("searchTerms");
+
+        return Mono.defer(() -> {
+            Instant settled = Instant.now().minus(noteChangesConfig.getSettleTime());
+            return mongoTemplate.find(query, Note.class)
+                    .collectList()
+                    .map(notes -> {
+                        int count = 0;
+                        while (count < notes.size() && count < size
+                                && notes.get(count).getCreatedAt() != null && !notes.get(count).getCreatedAt().isAfter(settled)) {
+                            count++;
+                        }
+                        List<Note> changes = notes.subList(0, count);
+                        long watermark = count == 0 ? since : changes.get(count - 1).getSeq();
+                        return new NoteChanges(changes, watermark, count == size && notes.size() > size);
+                    });
+        });
+    }
+
+    /**
+     * Builds the query of the notes of a patient following a cursor, sorted by noteDate then id.
+     * Notes without date come first, as in the database sort order.
+     *
+     * @param patientId The ID of the patient
+     * @param after The cursor to start after, or null
+     * @return The sorted query
+     */
+    private Query notesAfter(String patientId, NoteCursor after) {
+        Criteria criteria = Criteria.where("patientId").is(patientId);
+        if (after != null) {
+            Criteria sameDate = Criteria.where("noteDate").is(after.noteDate()).and("id").gt(after.id());
+            Criteria laterDate = after.noteDate() == null
+                    ? Criteria.where("noteDate").ne(null)
+                    : Criteria.where("noteDate").gt(after.noteDate());
+            criteria = criteria.orOperator(laterDate, sameDate);
         }
 
-        return notes;
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "noteDate", "id"));
+        query.fields().exclude("searchTerms");
+        return query;
     }
 
     /**
-     * Saves a note.
+     * Saves a note with the next sequence number, increments the version of the patient's notes, evicts the cached notes of the patient
+     * and announces the note to the services depending on the patient's notes. The eviction completes before
+     * the announcement, so that services reading the notes on the event never get the cached ones.
+     * The trigger fingerprint and the search terms are computed here, once, so that readers do not have to process
+     * the content again.
      *
      * @param note the note to be saved
-     * @return the saved note
+     * @return a Mono of the saved note
      */
     @Override
-    public Note save(Note note) {
+    public Mono<Note> save(Note note) {
         if (note == null) {
-            throw new IllegalArgumentException("Note cannot be null");
+            return Mono.error(new IllegalArgumentException("Note cannot be null"));
         }
 
-        return noteRepository.save(note);
+        note.setSearchTerms(SearchTerms.of(note.getNoteContent()));
+        return noteSequenceService.sequence(List.of(noteFingerprintService.fingerprint(note)))
+                .flatMap(numbered -> noteRepository.save(numbered.get(0)))
+                .flatMap(savedNote -> noteVersionService.increment(savedNote.getPatientId())
+                        .then(noteCacheService.evict(savedNote.getPatientId()))
+                        .then(noteEventPublisher.publishNoteCreated(savedNote.getPatientId()))
+                        .thenReturn(savedNote));
     }
 }
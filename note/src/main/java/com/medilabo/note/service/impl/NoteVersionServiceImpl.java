@@ -0,0 +1,66 @@
+package com.medilabo.note.service.impl;
+
+import com.medilabo.note.model.NoteVersion;
+import com.medilabo.note.service.NoteFingerprintService;
+import com.medilabo.note.service.NoteVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Service implementation of the version of each patient's notes, used as ETag of the note lists.
+ * The version is a counter incremented after every note write of the patient. The ETag also carries the trigger
+ * set version, as the stored triggers change when the trigger set does, without any note being written.
+ * Reading the version is a single lookup by _id, much cheaper than reading the notes.
+ */
+@Service
+public class NoteVersionServiceImpl implements NoteVersionService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private NoteFingerprintService noteFingerprintService;
+
+    /**
+     * Returns the ETag of the current state of a patient's notes.
+     * To be read before the notes: notes written in between then only make the ETag older than the content,
+     * which costs the client one more full response, never a stale one.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono of the ETag value, without quotes
+     */
+    @Override
+    public Mono<String> getETag(String patientId) {
+        if (patientId == null) {
+            return Mono.error(new IllegalArgumentException("Patient ID cannot be null"));
+        }
+
+        return mongoTemplate.findById(patientId, NoteVersion.class)
+                .map(NoteVersion::getVersion)
+                .defaultIfEmpty(0L)
+                .map(version -> version + "-" + noteFingerprintService.getTriggerSetVersion());
+    }
+
+    /**
+     * Increments the version of a patient's notes, after a note of the patient was written.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono completing once the version is incremented
+     */
+    @Override
+    public Mono<Void> increment(String patientId) {
+        if (patientId == null) {
+            return Mono.empty();
+        }
+
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(patientId)),
+                        new Update().inc("version", 1), NoteVersion.class)
+                .then();
+    }
+}
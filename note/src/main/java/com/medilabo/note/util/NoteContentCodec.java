@@ -0,0 +1,94 @@
+package com.medilabo.note.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of the note content stored in the database.
+ * A content at or above the threshold (in UTF-8 bytes) is stored as a deflate-compressed binary field,
+ * with the name of the codec next to it, instead of the plain text. Dictated notes are repetitive natural
+ * language and usually shrink to a third of their size. Contents that would not get smaller stay plain.
+ */
+public final class NoteContentCodec {
+
+    // Document fields of a compressed note, replacing 'noteContent'
+    public static final String COMPRESSED_FIELD = "compressedContent";
+    public static final String CODEC_FIELD = "contentCodec";
+
+    public static final String DEFLATE = "deflate";
+
+    private NoteContentCodec() {
+    }
+
+    /**
+     * Compresses a note content if it is large enough and gets smaller.
+     *
+     * @param content the note content
+     * @param threshold the minimum size, in UTF-8 bytes, of a content to compress
+     * @return the deflate-compressed content, or null if the content should be stored plain
+     */
+    public static byte[] compress(String content, int threshold) {
+        if (content == null || content.length() < threshold / 3) {
+            // A char is at most 3 UTF-8 bytes, so shorter strings are below the threshold anyway
+            return null;
+        }
+
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < threshold) {
+            return null;
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[Math.min(bytes.length, 8192)];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+                if (output.size() >= bytes.length) {
+                    return null;
+                }
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Restores a note content stored compressed.
+     *
+     * @param compressed the compressed content
+     * @param codec the codec the content was compressed with
+     * @return the note content
+     * @throws IllegalStateException if the codec is unknown or the content is corrupted
+     */
+    public static String decompress(byte[] compressed, String codec) {
+        if (!DEFLATE.equals(codec)) {
+            throw new IllegalStateException("Unknown note content codec: " + codec);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed note content");
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted compressed note content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
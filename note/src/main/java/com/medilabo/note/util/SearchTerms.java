@@ -0,0 +1,52 @@
+package com.medilabo.note.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Extracts the distinct words of a note, stored with the note for the full-text search.
+ * The text index is built on these words rather than on the content, which may be stored compressed.
+ * Case, accents and stemming are left to the text index, which applies them to the indexed words and to the
+ * searched words alike.
+ * Each word is kept once, so the text score of a note tells which searched words it contains, not how often:
+ * the ranking is presence-only, and notes containing the same searched words tie.
+ */
+public final class SearchTerms {
+
+    // Single letters carry no meaning on their own and would only bloat the index
+    private static final int MIN_LENGTH = 2;
+
+    private SearchTerms() {
+    }
+
+    /**
+     * Returns the distinct words of a text, lower-cased, in order of first appearance.
+     * Words are maximal runs of letters and digits.
+     *
+     * @param text the note content
+     * @return the distinct words, empty if the text is null or has no word
+     */
+    public static List<String> of(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_LENGTH) {
+                    terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+}
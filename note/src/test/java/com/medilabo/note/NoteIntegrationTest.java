@@ -0,0 +1,35 @@
+package com.medilabo.note;
+
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base of the tests running the whole note service against MongoDB and Redis containers.
+ * The containers are started once and shared by every test class, whatever application context they get;
+ * the tests are skipped when Docker is not available. Service discovery and the startup backfills are disabled.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "note.triggers.backfill-on-startup=false",
+        "note.changes.backfill-on-startup=false",
+        "note.compression.migrate-on-startup=false"
+})
+@AutoConfigureWebTestClient
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class NoteIntegrationTest {
+
+    @ServiceConnection
+    static final MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7.2").withExposedPorts(6379);
+
+    static {
+        mongo.start();
+        redis.start();
+    }
+}
@@ -0,0 +1,122 @@
+package com.medilabo.note.controller;
+
+import com.medilabo.note.NoteIntegrationTest;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.model.NoteBulkResult;
+import com.medilabo.note.model.NoteVersion;
+import com.medilabo.note.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Posts notes to the bulk endpoint, written by chunks of three notes, and checks the report and the stored notes.
+ */
+@TestPropertySource(properties = "note.bulk.chunk-size=3")
+class NoteBulkIngestionTest extends NoteIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAll().block();
+        mongoTemplate.dropCollection(NoteVersion.class).block();
+    }
+
+    @Test
+    void invalidAndDuplicateNotesAreReportedWithoutStoppingTheIngestion() {
+        String body = """
+                [
+                  {"patientId": "1", "noteDate": "2024-01-01", "noteContent": "Poids stable"},
+                  {"noteDate": "2024-01-02", "noteContent": "Sans patient"},
+                  {"id": "dup", "patientId": "2", "noteDate": "2024-01-03", "noteContent": "Fumeur"},
+                  {"patientId": "1", "noteDate": "2024-01-04", "noteContent": "Vertiges"},
+                  {"id": "dup", "patientId": "3", "noteDate": "2024-01-05", "noteContent": "Même ID"},
+                  {"patientId": "2", "noteDate": "2024-01-06", "noteContent": {"not": "text"}},
+                  {"patientId": "2", "noteDate": "2024-01-07", "noteContent": "Rechute"}
+                ]
+                """;
+
+        NoteBulkResult result = webTestClient.post().uri("/api/notes/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(NoteBulkResult.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(7, result.received());
+        assertEquals(4, result.inserted());
+        assertEquals(3, result.failed());
+        assertNull(result.aborted());
+
+        Map<Long, String> failures = result.errors().stream()
+                .collect(Collectors.toMap(NoteBulkResult.Failure::index, NoteBulkResult.Failure::message));
+        assertEquals(List.of(1L, 4L, 5L), failures.keySet().stream().sorted().toList());
+        assertEquals("Patient ID cannot be empty", failures.get(1L));
+        assertTrue(failures.get(4L).contains("E11000"), failures.get(4L));
+        assertTrue(failures.get(5L).startsWith("Invalid note"), failures.get(5L));
+
+        List<Note> stored = noteRepository.findAll().collectList().block();
+        assertEquals(List.of("2024-01-01", "2024-01-03", "2024-01-04", "2024-01-07"),
+                stored.stream().map(Note::getNoteDate).sorted().toList());
+        assertEquals("2", noteRepository.findById("dup").block().getPatientId());
+        for (Note note : stored) {
+            assertNotNull(note.getSeq());
+            assertNotNull(note.getTriggerSetVersion());
+        }
+
+        // Patient 3 only had a rejected note: their notes version is left alone
+        assertNotNull(mongoTemplate.findById("1", NoteVersion.class).block());
+        assertNotNull(mongoTemplate.findById("2", NoteVersion.class).block());
+        assertNull(mongoTemplate.findById("3", NoteVersion.class).block());
+    }
+
+    @Test
+    void malformedBodyIsReportedWithTheNotesStoredSoFar() {
+        // The decoder may drop the notes sharing a network buffer with the malformed line, so the counts are only
+        // checked against each other and against the collection
+        String body = """
+                {"patientId": "1", "noteDate": "2024-01-01", "noteContent": "Poids stable"}
+                {"patientId": "1", "noteDate": "2024-01-02", "noteContent": "Vertiges"}
+                {"patientId": "1", "noteDate" "2024-01-03", "noteContent": "Rechute"}
+                """;
+
+        NoteBulkResult result = webTestClient.post().uri("/api/notes/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(NoteBulkResult.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertNotNull(result.aborted());
+        assertTrue(result.received() <= 2);
+        assertEquals(result.received(), result.inserted());
+        assertEquals(result.inserted(), noteRepository.count().block());
+    }
+}
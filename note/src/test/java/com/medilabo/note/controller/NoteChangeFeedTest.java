@@ -0,0 +1,142 @@
+package com.medilabo.note.controller;
+
+import com.medilabo.note.NoteIntegrationTest;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.repository.NoteRepository;
+import com.medilabo.note.service.NoteSequenceService;
+import com.medilabo.note.service.NoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pages through the change feed with its watermark, the notes settling for one second before they are listed.
+ */
+@TestPropertySource(properties = "note.changes.settle-time=1s")
+class NoteChangeFeedTest extends NoteIntegrationTest {
+
+    private static final long SETTLED = 1200;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteSequenceService noteSequenceService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAll().block();
+    }
+
+    @Test
+    void pagesThroughTheFeedWithTheWatermark() throws InterruptedException {
+        Note first = noteService.save(note("1", "Poids stable")).block();
+        Note second = noteService.save(note("2", "Fumeur")).block();
+        Note third = noteService.save(note("1", "Vertiges")).block();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotNull(third);
+
+        Thread.sleep(SETTLED);
+
+        Page page = changes(0, 2);
+        assertEquals(List.of(first.getId(), second.getId()), ids(page));
+        assertEquals(second.getSeq().longValue(), page.watermark());
+        assertTrue(page.more());
+
+        page = changes(page.watermark(), 2);
+        assertEquals(List.of(third.getId()), ids(page));
+        assertEquals(third.getSeq().longValue(), page.watermark());
+        assertFalse(page.more());
+
+        Page end = changes(page.watermark(), 2);
+        assertTrue(end.notes().isEmpty());
+        assertEquals(third.getSeq().longValue(), end.watermark());
+        assertFalse(end.more());
+    }
+
+    @Test
+    void noteWithASmallerNumberCommittedLateIsNotSkipped() throws InterruptedException {
+        Note earlier = noteService.save(note("1", "Poids stable")).block();
+        assertNotNull(earlier);
+        Thread.sleep(SETTLED);
+        long watermark = changes(0, 10).watermark();
+        assertEquals(earlier.getSeq().longValue(), watermark);
+
+        // The number of the late note is allocated before the one of the next note, which is committed first
+        List<Note> allocated = noteSequenceService.sequence(List.of(note("2", "Rechute"))).block();
+        assertNotNull(allocated);
+        Note late = allocated.get(0);
+        Note next = noteService.save(note("1", "Vertiges")).block();
+        assertNotNull(next);
+        assertTrue(late.getSeq() < next.getSeq());
+
+        // The next note is not listed while it settles, so the watermark does not pass the late one
+        Page settling = changes(watermark, 10);
+        assertTrue(settling.notes().isEmpty());
+        assertEquals(watermark, settling.watermark());
+
+        Note committed = noteRepository.save(late).block();
+        assertNotNull(committed);
+        Thread.sleep(SETTLED);
+
+        Page page = changes(watermark, 10);
+        assertEquals(List.of(committed.getId(), next.getId()), ids(page));
+        assertEquals(next.getSeq().longValue(), page.watermark());
+        assertFalse(page.more());
+
+        // The changes of one patient are read through the same watermark
+        EntityExchangeResult<List<Note>> patientChanges = webTestClient.get()
+                .uri("/api/notes?patientId=1&since={since}", watermark)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Note.class)
+                .returnResult();
+        assertEquals(List.of(next.getId()), patientChanges.getResponseBody().stream().map(Note::getId).toList());
+        assertEquals(String.valueOf(next.getSeq()),
+                patientChanges.getResponseHeaders().getFirst(NoteController.WATERMARK_HEADER));
+    }
+
+    private Page changes(long since, int limit) {
+        EntityExchangeResult<List<Note>> result = webTestClient.get()
+                .uri("/api/notes/changes?since={since}&limit={limit}", since, limit)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Note.class)
+                .returnResult();
+        return new Page(result.getResponseBody(),
+                Long.parseLong(result.getResponseHeaders().getFirst(NoteController.WATERMARK_HEADER)),
+                Boolean.parseBoolean(result.getResponseHeaders().getFirst(NoteController.MORE_HEADER)));
+    }
+
+    private static List<String> ids(Page page) {
+        return page.notes().stream().map(Note::getId).toList();
+    }
+
+    private static Note note(String patientId, String content) {
+        Note note = new Note();
+        note.setPatientId(patientId);
+        note.setNoteDate("2024-01-01");
+        note.setNoteContent(content);
+        return note;
+    }
+
+    private record Page(List<Note> notes, long watermark, boolean more) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.medilabo.note.controller;
+
+import com.medilabo.note.NoteIntegrationTest;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.repository.NoteRepository;
+import com.medilabo.note.service.NoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Searches stored notes through the search endpoint, with the patient and date filters and page after page.
+ */
+class NoteSearchTest extends NoteIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    private Note smoker;
+    private Note smokerWithVertigo;
+    private Note vertigo;
+    private Note otherPatient;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAll().block();
+
+        smoker = save("1", "2024-01-10", "Fumeur, tabac quotidien");
+        smokerWithVertigo = save("1", "2024-02-10", "Fumeur, vertiges fréquents");
+        vertigo = save("1", "2024-03-10", "Vertiges vertiges VERTIGES");
+        save("1", "2024-04-10", "Poids stable");
+        otherPatient = save("2", "2024-02-15", "Fumeur, vertiges");
+    }
+
+    @Test
+    void pagesOfOnePatientFollowTheRelevance() {
+        String uri = "/api/notes/search?query={query}&patientId=1&size=2&page={page}";
+
+        EntityExchangeResult<List<Note>> first = search(uri, "fumeur vertiges", 0);
+        List<Note> firstPage = first.getResponseBody();
+        assertNotNull(firstPage);
+        assertEquals(2, firstPage.size());
+        // The only note of the patient with both words comes first; repeating a word does not rank a note higher
+        assertEquals(smokerWithVertigo.getId(), firstPage.get(0).getId());
+        assertEquals("1", first.getResponseHeaders().getFirst(NoteController.NEXT_PAGE_HEADER));
+
+        EntityExchangeResult<List<Note>> second = search(uri, "fumeur vertiges", 1);
+        List<Note> secondPage = second.getResponseBody();
+        assertNotNull(secondPage);
+        assertEquals(1, secondPage.size());
+        assertNull(second.getResponseHeaders().getFirst(NoteController.NEXT_PAGE_HEADER));
+
+        // Notes of equal relevance are split across the pages without being repeated or skipped
+        List<String> ids = new ArrayList<>(ids(firstPage));
+        ids.addAll(ids(secondPage));
+        assertEquals(3, ids.size());
+        assertEquals(Set.of(smoker.getId(), smokerWithVertigo.getId(), vertigo.getId()), Set.copyOf(ids));
+    }
+
+    @Test
+    void datesBoundTheSearchInclusively() {
+        List<Note> notes = search("/api/notes/search?query={query}&from=2024-02-10&to=2024-02-15&page={page}",
+                "fumeur", 0).getResponseBody();
+
+        assertNotNull(notes);
+        assertEquals(Set.of(smokerWithVertigo.getId(), otherPatient.getId()), Set.copyOf(ids(notes)));
+    }
+
+    @Test
+    void excludedWordsFilterTheMatches() {
+        List<Note> notes = search("/api/notes/search?query={query}&patientId=1&from=2024-01-01&page={page}",
+                "fumeur -tabac", 0).getResponseBody();
+
+        assertNotNull(notes);
+        assertEquals(List.of(smokerWithVertigo.getId()), ids(notes));
+    }
+
+    @Test
+    void invalidDateIsABadRequest() {
+        webTestClient.get()
+                .uri("/api/notes/search?query=fumeur&from=10/02/2024")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private EntityExchangeResult<List<Note>> search(String uri, String query, int page) {
+        return webTestClient.get()
+                .uri(uri, query, page)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Note.class)
+                .returnResult();
+    }
+
+    private Note save(String patientId, String noteDate, String content) {
+        Note note = new Note();
+        note.setPatientId(patientId);
+        note.setNoteDate(noteDate);
+        note.setNoteContent(content);
+        return noteService.save(note).block();
+    }
+
+    private static List<String> ids(List<Note> notes) {
+        return notes.stream().map(Note::getId).toList();
+    }
+}
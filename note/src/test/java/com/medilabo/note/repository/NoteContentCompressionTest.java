@@ -0,0 +1,141 @@
+package com.medilabo.note.repository;
+
+import com.medilabo.note.NoteIntegrationTest;
+import com.medilabo.note.model.Note;
+import com.medilabo.note.model.NoteBulkResult;
+import com.medilabo.note.model.NoteProjection;
+import com.medilabo.note.service.NoteFingerprintService;
+import com.medilabo.note.service.NoteService;
+import com.medilabo.note.util.NoteContentCodec;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes notes above and below the compression threshold through the service and the bulk endpoint,
+ * and checks the stored documents and every read path giving the plain content back.
+ */
+@TestPropertySource(properties = "note.compression.threshold=256")
+class NoteContentCompressionTest extends NoteIntegrationTest {
+
+    // Multi-byte chars make the UTF-8 size exceed the length of the string
+    private static final String LARGE = "Réaction à l'hémoglobine A1C, vertiges — 12 € ✓ ".repeat(20);
+    private static final String SMALL = "Poids stable";
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteFingerprintService noteFingerprintService;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAll().block();
+    }
+
+    @Test
+    void largeNoteIsStoredCompressedAndReadPlain() {
+        Note large = noteService.save(note("compression-1", "2024-01-01", LARGE)).block();
+        Note small = noteService.save(note("compression-1", "2024-01-02", SMALL)).block();
+
+        // The saved entity keeps its plain content
+        assertEquals(LARGE, large.getNoteContent());
+
+        Document largeDocument = rawDocument(large.getId());
+        assertFalse(largeDocument.containsKey("noteContent"));
+        assertEquals(NoteContentCodec.DEFLATE, largeDocument.getString(NoteContentCodec.CODEC_FIELD));
+        assertNotNull(largeDocument.get(NoteContentCodec.COMPRESSED_FIELD));
+
+        Document smallDocument = rawDocument(small.getId());
+        assertEquals(SMALL, smallDocument.getString("noteContent"));
+        assertFalse(smallDocument.containsKey(NoteContentCodec.COMPRESSED_FIELD));
+
+        assertEquals(LARGE, noteRepository.findById(large.getId()).block().getNoteContent());
+        assertEquals(List.of(LARGE, SMALL), noteService.getNotesByPatientId("compression-1")
+                .map(Note::getNoteContent).collectList().block());
+        assertEquals(List.of(LARGE, SMALL), noteRepository.findByPatientIdOrderByNoteDateAscIdAsc("compression-1")
+                .map(Note::getNoteContent).collectList().block());
+    }
+
+    @Test
+    void projectionsReadTheCompressedContent() {
+        Note large = noteService.save(note("compression-2", "2024-01-01", LARGE)).block();
+
+        // A reader with another trigger set gets the content
+        List<NoteProjection> contents = noteService.getNoteProjections("compression-2", "other").collectList().block();
+        assertEquals(1, contents.size());
+        assertEquals(LARGE, contents.get(0).noteContent());
+
+        // An outdated fingerprint is computed again from the content decompressed out of the aggregation
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(large.getId())),
+                new Update().set("triggerSetVersion", "outdated").unset("triggers"), Note.class).block();
+        String version = noteFingerprintService.getTriggerSetVersion();
+        List<NoteProjection> triggers = noteService.getNoteProjections("compression-2", version).collectList().block();
+        assertEquals(1, triggers.size());
+        assertNull(triggers.get(0).noteContent());
+        assertEquals(version, triggers.get(0).triggerSetVersion());
+        assertTrue(triggers.get(0).triggers().containsAll(List.of("hemoglobine a1c", "vertiges", "reaction")),
+                () -> "Unexpected triggers: " + triggers.get(0).triggers());
+    }
+
+    @Test
+    void bulkInsertedNotesAreCompressed() {
+        NoteBulkResult result = webTestClient.post().uri("/api/notes/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(
+                        Map.of("patientId", "compression-3", "noteDate", "2024-01-01", "noteContent", LARGE),
+                        Map.of("patientId", "compression-3", "noteDate", "2024-01-02", "noteContent", SMALL)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(NoteBulkResult.class)
+                .returnResult()
+                .getResponseBody();
+        assertEquals(2, result.inserted());
+
+        List<Document> documents = mongoTemplate.find(Query.query(Criteria.where("patientId").is("compression-3")),
+                Document.class, "note").collectList().block();
+        assertEquals(1, documents.stream().filter(document -> document.containsKey(NoteContentCodec.COMPRESSED_FIELD)).count());
+        assertEquals(List.of(LARGE, SMALL), noteRepository.findByPatientIdOrderByNoteDateAscIdAsc("compression-3")
+                .map(Note::getNoteContent).collectList().block());
+    }
+
+    private Document rawDocument(String id) {
+        // Raw documents are not mapped, so the ID is not converted to an ObjectId for us
+        return mongoTemplate.findOne(Query.query(Criteria.where("_id").is(new ObjectId(id))), Document.class, "note").block();
+    }
+
+    private static Note note(String patientId, String noteDate, String content) {
+        Note note = new Note();
+        note.setPatientId(patientId);
+        note.setNoteDate(noteDate);
+        note.setNoteContent(content);
+        return note;
+    }
+}
@@ -0,0 +1,96 @@
+package com.medilabo.note.repository;
+
+import com.medilabo.note.model.Note;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the patient note lookups are served by the (patientId, noteDate) index and return notes in date order.
+ * Runs against a MongoDB container, and is skipped when Docker is not available.
+ */
+@DataMongoTest(properties = "spring.data.mongodb.auto-index-creation=true")
+@Testcontainers(disabledWithoutDocker = true)
+class NoteRepositoryIndexTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAll().block();
+
+        List<Note> notes = new ArrayList<>();
+        for (int patient = 1; patient <= 20; patient++) {
+            for (int day = 28; day >= 1; day--) {
+                Note note = new Note();
+                note.setPatientId(String.valueOf(patient));
+                note.setNoteDate(String.format("2024-02-%02d", day));
+                note.setNoteContent("Note " + day);
+                notes.add(note);
+            }
+        }
+        noteRepository.saveAll(notes).blockLast();
+    }
+
+    @Test
+    void patientLookupSortedByDateUsesIndex() {
+        Document plan = explain(new Document("patientId", "7"), new Document("noteDate", 1).append("_id", 1));
+
+        assertIndexScan(plan);
+
+        List<Note> notes = noteRepository.findByPatientIdOrderByNoteDateAscIdAsc("7").collectList().block();
+        assertEquals(28, notes.size());
+        assertEquals("2024-02-01", notes.get(0).getNoteDate());
+        assertEquals("2024-02-28", notes.get(27).getNoteDate());
+    }
+
+    @Test
+    void dateRangeLookupUsesIndex() {
+        Document filter = new Document("patientId", "7")
+                .append("noteDate", new Document("$gte", "2024-02-10").append("$lte", "2024-02-12"));
+        Document plan = explain(filter, new Document("noteDate", 1).append("_id", 1));
+
+        assertIndexScan(plan);
+
+        List<Note> notes = noteRepository.findByPatientIdAndNoteDateBetween("7", "2024-02-10", "2024-02-12").collectList().block();
+        assertEquals(List.of("2024-02-10", "2024-02-11", "2024-02-12"), notes.stream().map(Note::getNoteDate).toList());
+    }
+
+    private Document explain(Document filter, Document sort) {
+        Document explain = mongoTemplate.getCollection("note")
+                .flatMap(collection -> Mono.from(collection.find(filter).sort(sort).explain()))
+                .block();
+        return explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+
+    private static void assertIndexScan(Document winningPlan) {
+        String plan = winningPlan.toJson();
+        assertTrue(plan.contains("IXSCAN"), () -> "Expected an index scan: " + plan);
+        assertTrue(plan.contains("patientId_noteDate"), () -> "Expected the patientId_noteDate index: " + plan);
+        assertFalse(plan.contains("COLLSCAN"), () -> "Unexpected collection scan: " + plan);
+        assertFalse(plan.contains("\"SORT\""), () -> "Unexpected in-memory sort: " + plan);
+    }
+}
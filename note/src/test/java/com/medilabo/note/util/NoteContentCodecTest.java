@@ -0,0 +1,102 @@
+package com.medilabo.note.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteContentCodecTest {
+
+    private static final String DICTATED = "Le patient déclare qu'il se sent fatigué pendant la journée. "
+            + "Il se plaint également de douleurs musculaires. Tests de laboratoire indiquant une microalbumine élevée. ";
+
+    @Test
+    void largeContentRoundTrips() {
+        String content = DICTATED.repeat(40);
+
+        byte[] compressed = NoteContentCodec.compress(content, 2048);
+
+        assertNotNull(compressed);
+        assertTrue(compressed.length < content.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(content, NoteContentCodec.decompress(compressed, NoteContentCodec.DEFLATE));
+    }
+
+    @Test
+    void contentLargerThanTheBuffersRoundTrips() {
+        // Varied enough to compress to more than one 8 KB buffer
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 200_000) {
+            content.append(DICTATED, 0, 1 + random.nextInt(DICTATED.length() - 1))
+                    .append(random.nextInt(1_000_000))
+                    .append(' ');
+        }
+
+        byte[] compressed = NoteContentCodec.compress(content.toString(), 2048);
+
+        assertNotNull(compressed);
+        assertTrue(compressed.length > 8192);
+        assertEquals(content.toString(), NoteContentCodec.decompress(compressed, NoteContentCodec.DEFLATE));
+    }
+
+    @Test
+    void thresholdCountsUtf8BytesOfMultiByteContent() {
+        // '€' is 3 UTF-8 bytes: 100 of them reach a 300 bytes threshold, 99 do not
+        String atThreshold = "€".repeat(100);
+        byte[] compressed = NoteContentCodec.compress(atThreshold, 300);
+        assertNotNull(compressed);
+        assertEquals(atThreshold, NoteContentCodec.decompress(compressed, NoteContentCodec.DEFLATE));
+        assertNull(NoteContentCodec.compress("€".repeat(99), 300));
+
+        // 'é' is 2 UTF-8 bytes: 150 chars reach the threshold though a third of it in chars would not suffice
+        String twoByteChars = "é".repeat(150);
+        assertEquals(twoByteChars, NoteContentCodec.decompress(NoteContentCodec.compress(twoByteChars, 300), NoteContentCodec.DEFLATE));
+        assertNull(NoteContentCodec.compress("é".repeat(149), 300));
+
+        // Surrogate pairs (4 bytes for 2 chars) and mixed widths are restored exactly
+        String mixed = "Vertiges 😵‍💫 réaction € 漢字 ".repeat(20);
+        assertEquals(mixed, NoteContentCodec.decompress(NoteContentCodec.compress(mixed, 300), NoteContentCodec.DEFLATE));
+    }
+
+    @Test
+    void smallContentStaysPlain() {
+        assertNull(NoteContentCodec.compress(null, 2048));
+        assertNull(NoteContentCodec.compress("", 0));
+        assertNull(NoteContentCodec.compress(DICTATED, 2048));
+    }
+
+    @Test
+    void contentThatDoesNotShrinkStaysPlain() {
+        // The deflate stream of a few bytes is larger than the bytes themselves
+        assertNull(NoteContentCodec.compress("Poids", 1));
+        // Above the threshold, but without repetition to take advantage of
+        assertNull(NoteContentCodec.compress("x7Qp!zR2@kW9#mL4", 10));
+    }
+
+    @Test
+    void unknownCodecIsRejected() {
+        byte[] compressed = NoteContentCodec.compress(DICTATED.repeat(40), 2048);
+
+        assertThrows(IllegalStateException.class, () -> NoteContentCodec.decompress(compressed, "gzip"));
+        assertThrows(IllegalStateException.class, () -> NoteContentCodec.decompress(compressed, null));
+    }
+
+    @Test
+    void truncatedOrCorruptedContentIsRejected() {
+        byte[] compressed = NoteContentCodec.compress(DICTATED.repeat(40), 2048);
+
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        assertThrows(IllegalStateException.class, () -> NoteContentCodec.decompress(truncated, NoteContentCodec.DEFLATE));
+
+        byte[] corrupted = compressed.clone();
+        corrupted[0] = 0;
+        assertThrows(IllegalStateException.class, () -> NoteContentCodec.decompress(corrupted, NoteContentCodec.DEFLATE));
+    }
+}
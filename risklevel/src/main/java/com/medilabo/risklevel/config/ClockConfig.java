@@ -0,0 +1,20 @@
+package com.medilabo.risklevel.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+
+/**
+ * Configuration class for the clock used to compute patient ages.
+ * Tests can provide a fixed clock instead of the system one.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -1,22 +0,0 @@
-package com.medilabo.risklevel.config;
-
-import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.stereotype.Component;
-
-
-/**
- * Configuration class for NoteService.
- */
-@Component
-@ConfigurationProperties(prefix = "note.service")
-public class NoteServiceConfig {
-    private String baseUrl;
-
-    public String getBaseUrl() {
-        return baseUrl;
-    }
-
-    public void setBaseUrl(String baseUrl) {
-        this.baseUrl = baseUrl;
-    }
-}
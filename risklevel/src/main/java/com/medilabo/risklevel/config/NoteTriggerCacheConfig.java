@@ -0,0 +1,44 @@
+package com.medilabo.risklevel.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Configuration class for the per-note trigger cache.
+ * Notes are append-only, so the trigger count of a note never changes once computed and can be reused
+ * by later risk evaluations of the same patient.
+ */
+@Component
+@ConfigurationProperties(prefix = "risklevel.note-cache")
+public class NoteTriggerCacheConfig {
+    private boolean enabled = true;
+    private long maximumSize = 500_000;
+    private Duration expireAfterAccess = Duration.ofDays(7);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+}
@@ -1,22 +0,0 @@
-package com.medilabo.risklevel.config;
-
-import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.stereotype.Component;
-
-
-/**
- * Configuration class for PatientService.
- */
-@Component
-@ConfigurationProperties(prefix = "patient.service")
-public class PatientServiceConfig {
-    private String baseUrl;
-
-    public String getBaseUrl() {
-        return baseUrl;
-    }
-
-    public void setBaseUrl(String baseUrl) {
-        this.baseUrl = baseUrl;
-    }
-}
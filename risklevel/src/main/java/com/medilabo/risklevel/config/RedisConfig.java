@@ -0,0 +1,20 @@
+package com.medilabo.risklevel.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+
+
+/**
+ * Configuration class for Redis messaging.
+ * Defines the container used to subscribe to the patient and note events published by the other services.
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public ReactiveRedisMessageListenerContainer redisMessageListenerContainer(ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+}
@@ -0,0 +1,23 @@
+package com.medilabo.risklevel.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Configuration class for batch risk level evaluation.
+ * Bounds how many patients are fetched and evaluated at the same time.
+ */
+@Component
+@ConfigurationProperties(prefix = "risklevel.batch")
+public class RiskLevelBatchConfig {
+    private int concurrency = 32;
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
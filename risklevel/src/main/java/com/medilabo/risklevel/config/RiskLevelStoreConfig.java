@@ -0,0 +1,26 @@
+package com.medilabo.risklevel.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+
+/**
+ * Configuration class for the store of computed risk levels.
+ * A stored level expires at the next midnight of the clock's zone, when the age of the patient may change,
+ * and at most after 'max-age', which bounds how long a level missed by a lost event is served.
+ */
+@Component
+@ConfigurationProperties(prefix = "risklevel.store")
+public class RiskLevelStoreConfig {
+    private Duration maxAge = Duration.ofHours(24);
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,134 @@
+package com.medilabo.risklevel.config;
+
+import com.medilabo.risklevel.model.RiskLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Configuration class for the risk level rules.
+ * Rules are evaluated in order and the first one matching the patient's age, gender and number of symptoms
+ * gives the risk level; a patient matching no rule has no risk. Bounds are inclusive and a missing bound is open.
+ * The defaults reproduce the reference rules, so the "risklevel.rules" section only needs to be set to change them.
+ */
+@Component
+@ConfigurationProperties(prefix = "risklevel.rules")
+public class RiskRulesConfig {
+
+    public enum Gender {
+        MALE, FEMALE, ANY
+    }
+
+    // Values of Patient.gender recognized as male or female, compared ignoring case
+    private List<String> maleCodes = new ArrayList<>(List.of("M"));
+    private List<String> femaleCodes = new ArrayList<>(List.of("F"));
+
+    private List<Rule> levels = new ArrayList<>(List.of(
+            new Rule(RiskLevel.EARLY_ONSET, null, 29, Gender.MALE, 5, null),
+            new Rule(RiskLevel.EARLY_ONSET, null, 29, Gender.FEMALE, 7, null),
+            new Rule(RiskLevel.EARLY_ONSET, 30, null, Gender.ANY, 8, null),
+            new Rule(RiskLevel.IN_DANGER, null, 29, Gender.MALE, 3, 3),
+            new Rule(RiskLevel.IN_DANGER, null, 29, Gender.FEMALE, 4, 4),
+            new Rule(RiskLevel.IN_DANGER, 30, null, Gender.ANY, 6, 7),
+            new Rule(RiskLevel.BORDERLINE, 30, null, Gender.ANY, 2, 5)
+    ));
+
+    public List<String> getMaleCodes() {
+        return maleCodes;
+    }
+
+    public void setMaleCodes(List<String> maleCodes) {
+        this.maleCodes = maleCodes;
+    }
+
+    public List<String> getFemaleCodes() {
+        return femaleCodes;
+    }
+
+    public void setFemaleCodes(List<String> femaleCodes) {
+        this.femaleCodes = femaleCodes;
+    }
+
+    public List<Rule> getLevels() {
+        return levels;
+    }
+
+    public void setLevels(List<Rule> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * A single rule: the risk level given to patients within the age, gender and symptom count bounds.
+     */
+    public static class Rule {
+        private RiskLevel level;
+        private Integer minAge;
+        private Integer maxAge;
+        private Gender gender = Gender.ANY;
+        private Integer minSymptoms;
+        private Integer maxSymptoms;
+
+        public Rule() {
+        }
+
+        public Rule(RiskLevel level, Integer minAge, Integer maxAge, Gender gender, Integer minSymptoms, Integer maxSymptoms) {
+            this.level = level;
+            this.minAge = minAge;
+            this.maxAge = maxAge;
+            this.gender = gender;
+            this.minSymptoms = minSymptoms;
+            this.maxSymptoms = maxSymptoms;
+        }
+
+        public RiskLevel getLevel() {
+            return level;
+        }
+
+        public void setLevel(RiskLevel level) {
+            this.level = level;
+        }
+
+        public Integer getMinAge() {
+            return minAge;
+        }
+
+        public void setMinAge(Integer minAge) {
+            this.minAge = minAge;
+        }
+
+        public Integer getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Integer maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public Gender getGender() {
+            return gender;
+        }
+
+        public void setGender(Gender gender) {
+            this.gender = gender;
+        }
+
+        public Integer getMinSymptoms() {
+            return minSymptoms;
+        }
+
+        public void setMinSymptoms(Integer minSymptoms) {
+            this.minSymptoms = minSymptoms;
+        }
+
+        public Integer getMaxSymptoms() {
+            return maxSymptoms;
+        }
+
+        public void setMaxSymptoms(Integer maxSymptoms) {
+            this.maxSymptoms = maxSymptoms;
+        }
+    }
+}
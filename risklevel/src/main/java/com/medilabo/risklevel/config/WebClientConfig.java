@@ -1,19 +0,0 @@
-package com.medilabo.risklevel.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
-
-
-/**
- * Configuration class for WebClient setup.
- * Defines a bean for WebClient using the provided WebClient.Builder.
- */
-@Configuration
-public class WebClientConfig {
-
-    @Bean
-    public WebClient webClient(WebClient.Builder builder) {
-        return builder.build();
-    }
-}
\ No newline at end of file
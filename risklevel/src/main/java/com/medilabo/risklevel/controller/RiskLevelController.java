@@ -1,13 +1,12 @@
 package com.medilabo.risklevel.controller;
 
-import com.medilabo.risklevel.model.Note;
-import com.medilabo.risklevel.model.Patient;
-import com.medilabo.risklevel.service.NoteService;
-import com.medilabo.risklevel.service.PatientService;
-import com.medilabo.risklevel.service.ResultatAnalysis;
-import com.medilabo.risklevel.service.RiskAnalysis;
+import com.medilabo.risklevel.model.RiskLevelResult;
+import com.medilabo.risklevel.service.RiskLevelService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -15,38 +14,37 @@ import java.util.List;
 /**
  * Controller class for managing risk levels.
  * Retrieves patient information and notes to analyze the risk level.
- * Uses services for note retrieval, patient retrieval, risk analysis, and result analysis.
+ * Delegates to the risk level service, which fetches patients and notes without blocking and runs the analysis.
  */
 @RestController
 @RequestMapping("/api/risklevels")
 public class RiskLevelController {
 
     @Autowired
-    private NoteService noteService;
-
-    @Autowired
-    private PatientService patientService;
-
-    @Autowired
-    private ResultatAnalysis resultatAnalysis;
-
-    @Autowired
-    private RiskAnalysis riskAnalysis;
+    private RiskLevelService riskLevelService;
 
     /**
-     * Controller class for managing risk levels.
-     * Retrieves patient information and notes to analyze the risk level.
-     * Utilizes internal services for note retrieval, patient retrieval, risk analysis, and result analysis.
+     * Returns the risk level of a patient.
+     * The value is read from the store refreshed by the patient and note events; a patient never seen before
+     * is evaluated on demand, fetching the patient and the notes concurrently.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono emitting the risk level of the patient
      */
     @GetMapping
-    public String getRiskLevel(@RequestParam String patientId) {
-
-        Patient patient = patientService.getPatient(patientId);
-        List<Note> notes = noteService.getNoteByPatientId(patientId);
-
-        int nbSymptoms = riskAnalysis.searchForSymptoms(notes);
-        String levelOfRisk = resultatAnalysis.levelOfRisk(nbSymptoms, patient);
+    public Mono<String> getRiskLevel(@RequestParam String patientId) {
+        return riskLevelService.getRiskLevel(patientId);
+    }
 
-        return levelOfRisk;
+    /**
+     * Evaluates the risk level of many patients in one request.
+     * Results are streamed as newline-delimited JSON, one object per patient, as soon as each evaluation completes.
+     *
+     * @param patientIds the IDs of the patients to evaluate
+     * @return a Flux of results carrying the patient ID and either its risk level or the evaluation error
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RiskLevelResult> getRiskLevels(@RequestBody List<String> patientIds) {
+        return riskLevelService.evaluateAll(patientIds);
     }
 }
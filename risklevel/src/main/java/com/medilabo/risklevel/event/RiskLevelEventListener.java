@@ -0,0 +1,90 @@
+package com.medilabo.risklevel.event;
+
+import com.medilabo.risklevel.service.RiskLevelService;
+import com.medilabo.risklevel.service.RiskLevelStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+
+/**
+ * Keeps the stored risk levels up to date from the events published by the backend and note services.
+ * A created note or an updated patient triggers a recomputation of the patient's risk level;
+ * a deleted patient removes it. Events are plain patient IDs.
+ */
+@Component
+@Log4j2
+public class RiskLevelEventListener {
+
+    public static final String NOTE_CREATED = "note-created";
+    public static final String PATIENT_UPDATED = "patient-updated";
+    public static final String PATIENT_DELETED = "patient-deleted";
+
+    // Recomputations running at the same time
+    private static final int CONCURRENCY = 8;
+
+    @Autowired
+    private ReactiveRedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private RiskLevelService riskLevelService;
+
+    @Autowired
+    private RiskLevelStore riskLevelStore;
+
+    private Disposable subscription;
+
+    /**
+     * Subscribes to the events once the application is ready.
+     * The subscription is retried if Redis is unreachable, so risk levels are still served on demand meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        subscription = listenerContainer
+                .receive(ChannelTopic.of(NOTE_CREATED), ChannelTopic.of(PATIENT_UPDATED), ChannelTopic.of(PATIENT_DELETED))
+                .flatMap(message -> handle(message.getChannel(), message.getMessage()), CONCURRENCY)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Applies one event to the store. Failures are logged and never interrupt the subscription.
+     *
+     * @param channel the channel the event was received on
+     * @param patientId the ID of the patient concerned
+     * @return a Mono completing once the store is updated
+     */
+    private Mono<Boolean> handle(String channel, String patientId) {
+        // A new generation supersedes the computations still running for the patient, so events applied
+        // out of order never leave the level computed from the older data
+        Mono<Boolean> update = PATIENT_DELETED.equals(channel)
+                ? riskLevelStore.remove(patientId)
+                : riskLevelStore.nextGeneration(patientId)
+                        .flatMap(generation -> riskLevelService.evaluate(patientId)
+                                .flatMap(riskLevel -> riskLevelStore.put(patientId, generation, riskLevel)));
+
+        return update
+                .doOnSuccess(done -> log.debug("Risk level refreshed after {} for patient ID: {}", channel, patientId))
+                .onErrorResume(e -> {
+                    log.warn("Failed to refresh risk level after {} for patient ID: {}", channel, patientId, e);
+                    return Mono.empty();
+                });
+    }
+}
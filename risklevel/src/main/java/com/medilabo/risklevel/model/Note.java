@@ -1,16 +0,0 @@
-package com.medilabo.risklevel.model;
-
-import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.Data;
-
-@Data
-public class Note {
-
-    private String id;
-    private String patientId;
-    private String noteContent;
-
-    @JsonFormat(pattern = "yyyy-MM-dd")
-    private String noteDate;
-
-}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.medilabo.risklevel.model;
+
+/**
+ * Risk levels a patient can be assigned, from the most to the least severe.
+ * The display name (e.g. "EarlyOnset") is built once, so every evaluation returns the same String instance.
+ */
+public enum RiskLevel {
+    EARLY_ONSET, IN_DANGER, BORDERLINE, NONE;
+
+    private final String formattedName = format(name());
+
+    // Get formatted name
+    public String getFormattedName() {
+        return formattedName;
+    }
+
+    private static String format(String name) {
+        String[] words = name.toLowerCase().split("_");
+        StringBuilder formattedName = new StringBuilder();
+        for (String word : words) {
+            formattedName.append(Character.toUpperCase(word.charAt(0)))
+                    .append(word.substring(1));
+        }
+        return formattedName.toString().intern();
+    }
+}
@@ -0,0 +1,23 @@
+package com.medilabo.risklevel.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskLevelResult {
+
+    private String patientId;
+    private String riskLevel;
+    private String error;
+
+    public static RiskLevelResult success(String patientId, String riskLevel) {
+        return new RiskLevelResult(patientId, riskLevel, null);
+    }
+
+    public static RiskLevelResult failure(String patientId, String error) {
+        return new RiskLevelResult(patientId, null, error);
+    }
+}
@@ -1,13 +1,14 @@
 package com.medilabo.risklevel.service;
 
 
-import com.medilabo.risklevel.model.Note;
+import com.medilabo.client.model.Note;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 @Service
 public interface NoteService {
 
-    List<Note> getNoteByPatientId(String patientId);
+    Mono<List<Note>> getNoteByPatientId(String patientId);
 }
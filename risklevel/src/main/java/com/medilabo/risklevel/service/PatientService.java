@@ -1,14 +1,13 @@
 package com.medilabo.risklevel.service;
 
 
-import com.medilabo.risklevel.model.Patient;
+import com.medilabo.client.model.Patient;
 import org.springframework.stereotype.Service;
-
-import java.util.List;
+import reactor.core.publisher.Mono;
 
 
 @Service
 public interface PatientService {
 
-    Patient getPatient(String id);
+    Mono<Patient> getPatient(String id);
 }
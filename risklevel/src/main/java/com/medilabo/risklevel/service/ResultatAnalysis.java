@@ -1,7 +1,7 @@
 package com.medilabo.risklevel.service;
 
 
-import com.medilabo.risklevel.model.Patient;
+import com.medilabo.client.model.Patient;
 import org.springframework.stereotype.Service;
 
 
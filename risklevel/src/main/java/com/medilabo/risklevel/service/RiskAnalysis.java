@@ -1,7 +1,7 @@
 package com.medilabo.risklevel.service;
 
 
-import com.medilabo.risklevel.model.Note;
+import com.medilabo.client.model.Note;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -10,4 +10,6 @@ import java.util.List;
 public interface RiskAnalysis {
 
     public int searchForSymptoms(List<Note> noteList);
+
+    public String getTriggerSetVersion();
 }
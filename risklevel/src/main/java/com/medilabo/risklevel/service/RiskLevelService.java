@@ -0,0 +1,19 @@
+package com.medilabo.risklevel.service;
+
+
+import com.medilabo.risklevel.model.RiskLevelResult;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public interface RiskLevelService {
+
+    Mono<String> getRiskLevel(String patientId);
+
+    Mono<String> evaluate(String patientId);
+
+    Flux<RiskLevelResult> evaluateAll(List<String> patientIds);
+}
@@ -0,0 +1,19 @@
+package com.medilabo.risklevel.service;
+
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public interface RiskLevelStore {
+
+    Mono<String> get(String patientId);
+
+    Mono<String> getGeneration(String patientId);
+
+    Mono<String> nextGeneration(String patientId);
+
+    Mono<Boolean> put(String patientId, String generation, String riskLevel);
+
+    Mono<Boolean> remove(String patientId);
+}
@@ -1,49 +1,45 @@
 package com.medilabo.risklevel.service.impl;
 
 
-import com.medilabo.risklevel.config.NoteServiceConfig;
-import com.medilabo.risklevel.model.Note;
+import com.medilabo.client.NoteClient;
+import com.medilabo.client.model.Note;
 import com.medilabo.risklevel.service.NoteService;
+import com.medilabo.risklevel.service.RiskAnalysis;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 
 /**
  * Service implementation for handling notes with patient-specific operations.
- * Utilizes WebClient for making HTTP requests to the note service based on the provided configuration.
+ * Delegates to the shared NoteClient, which pools connections and bounds every call with a timeout.
  */
 @Service
 public class NoteServiceImpl implements NoteService {
 
-    @Autowired
-    private WebClient webclient;
+    private final NoteClient noteClient;
 
-    private NoteServiceConfig noteServiceConfig;
+    private final RiskAnalysis riskAnalysis;
 
     @Autowired
-    public NoteServiceImpl(NoteServiceConfig noteServiceConfig) {
-        this.noteServiceConfig = noteServiceConfig;
+    public NoteServiceImpl(NoteClient noteClient, RiskAnalysis riskAnalysis) {
+        this.noteClient = noteClient;
+        this.riskAnalysis = riskAnalysis;
     }
 
     /**
-     * Retrieves a list of notes specific to a given patient ID by making an HTTP GET request using WebClient.
-     * The URI is constructed based on the base URL provided in the NoteServiceConfig along with the patient ID as a query parameter.
-     * Converts the response body to a Flux of Note objects, collects them into a list, and then blocks until the list is available.
+     * Retrieves the notes of a given patient from the note service, without blocking the calling thread.
+     * Only the lean view of the notes is requested: their triggers when the note service uses the same symptom set,
+     * their content otherwise.
      *
      * @param patientId the ID of the patient for whom notes are being retrieved
-     * @return a list of Note objects associated with the specified patient ID
+     * @return a Mono emitting the list of Note objects associated with the specified patient ID
      */
     @Override
-    public List<Note> getNoteByPatientId(String patientId) {
-        return webclient.get()
-                .uri(noteServiceConfig.getBaseUrl() + "?patientId=" + patientId)
-                .retrieve()
-                .bodyToFlux(Note.class)
-                .collectList()
-                .block();
-
+    public Mono<List<Note>> getNoteByPatientId(String patientId) {
+        return noteClient.getLeanNotesByPatientId(patientId, riskAnalysis.getTriggerSetVersion())
+                .collectList();
     }
 }
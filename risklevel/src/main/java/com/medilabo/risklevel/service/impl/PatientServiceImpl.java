@@ -1,46 +1,35 @@
 package com.medilabo.risklevel.service.impl;
 
-import com.medilabo.risklevel.config.PatientServiceConfig;
-import com.medilabo.risklevel.model.Patient;
+import com.medilabo.client.PatientClient;
+import com.medilabo.client.model.Patient;
 import com.medilabo.risklevel.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-
-import java.util.List;
+import reactor.core.publisher.Mono;
 
 /**
- * Patient service implementation that retrieves patient information using a WebClient.
- * Utilizes a PatientServiceConfig to determine the base URL for the requests.
+ * Patient service implementation that retrieves patient information from the backend service.
+ * Delegates to the shared PatientClient, which pools connections and bounds every call with a timeout.
  */
 @Service
 public class PatientServiceImpl implements PatientService {
 
-    @Autowired
-    private WebClient webclient;
-
-    private PatientServiceConfig patientServiceConfig;
+    private final PatientClient patientClient;
 
     @Autowired
-    private PatientServiceImpl(PatientServiceConfig patientServiceConfig) {
-        this.patientServiceConfig = patientServiceConfig;
+    public PatientServiceImpl(PatientClient patientClient) {
+        this.patientClient = patientClient;
     }
 
 
     /**
-     * Retrieves patient information by making a GET request using WebClient.
-     * Constructs the request URL by appending the provided 'id' to the base URL fetched from PatientServiceConfig.
-     * Converts the response body to a Mono of Patient class and blocks until the result is available.
+     * Retrieves patient information from the backend service, without blocking the calling thread.
      *
      * @param id The unique identifier of the patient to retrieve.
-     * @return The patient information fetched from the specified URL.
+     * @return A Mono emitting the patient information.
      */
     @Override
-    public Patient getPatient(String id) {
-        return webclient.get()
-                .uri(patientServiceConfig.getBaseUrl() + "/" + id)
-                .retrieve()
-                .bodyToMono(Patient.class)
-                .block();
+    public Mono<Patient> getPatient(String id) {
+        return patientClient.getPatient(id);
     }
 }
@@ -1,111 +1,171 @@
 package com.medilabo.risklevel.service.impl;
 
-import com.medilabo.risklevel.model.Patient;
+import com.medilabo.client.model.Patient;
+import com.medilabo.risklevel.config.RiskRulesConfig;
+import com.medilabo.risklevel.model.RiskLevel;
 import com.medilabo.risklevel.service.ResultatAnalysis;
 import com.medilabo.risklevel.util.AgeCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.TreeSet;
+
 
 /**
  * Service implementation for analyzing the level of risk based on the number of symptoms and patient information.
  * Implements the ResultatAnalysis interface.
- * Utilizes an enum RiskLevel for categorizing risk levels and provides methods to check for different risk levels.
+ * The rules from RiskRulesConfig are compiled at startup into a dense decision table indexed by
+ * (age band, gender, capped number of symptoms), so an evaluation is a single array lookup returning
+ * a pre-built risk level name. Together with AgeCalculator, an evaluation allocates nothing.
  */
 @Service
 public class ResultatAnalysisImpl implements ResultatAnalysis {
 
-    // Enum for risk level
-    private enum RiskLevel {
-        EARLY_ONSET, IN_DANGER, BORDERLINE, NONE;
-
-        // Get formatted name
-        public String getFormattedName() {
-            String[] words = this.name().toLowerCase().split("_");
-            StringBuilder formattedName = new StringBuilder();
-            for (String word : words) {
-                formattedName.append(Character.toUpperCase(word.charAt(0)))
-                        .append(word.substring(1));
+    // Gender indices in the decision table
+    private static final int MALE = 0;
+    private static final int FEMALE = 1;
+    private static final int OTHER = 2;
+    private static final int GENDERS = 3;
+
+    private final String[] maleCodes;
+    private final String[] femaleCodes;
+
+    // Age band of every age up to the last rule boundary; older patients fall in the last band
+    private final int[] ageBands;
+    private final int lastBand;
+
+    // Symptom counts at or above this value all lead to the same result
+    private final int symptomCap;
+
+    // Formatted risk level for table[(band * GENDERS + gender) * (symptomCap + 1) + symptoms]
+    private final String[] table;
+
+    private final AgeCalculator ageCalculator;
+
+    @Autowired
+    public ResultatAnalysisImpl(RiskRulesConfig riskRulesConfig, AgeCalculator ageCalculator) {
+        this.ageCalculator = ageCalculator;
+        this.maleCodes = riskRulesConfig.getMaleCodes().toArray(new String[0]);
+        this.femaleCodes = riskRulesConfig.getFemaleCodes().toArray(new String[0]);
+
+        List<RiskRulesConfig.Rule> rules = riskRulesConfig.getLevels();
+
+        // Every rule boundary starts a new age band, and sets the symptom cap
+        TreeSet<Integer> bandStarts = new TreeSet<>();
+        bandStarts.add(0);
+        int cap = 0;
+        for (RiskRulesConfig.Rule rule : rules) {
+            if (rule.getLevel() == null) {
+                throw new IllegalArgumentException("Risk rule without level in risklevel.rules.levels");
+            }
+            if (rule.getMinAge() != null && rule.getMinAge() > 0) {
+                bandStarts.add(rule.getMinAge());
+            }
+            if (rule.getMaxAge() != null && rule.getMaxAge() >= 0) {
+                bandStarts.add(rule.getMaxAge() + 1);
+            }
+            if (rule.getMinSymptoms() != null) {
+                cap = Math.max(cap, rule.getMinSymptoms());
+            }
+            if (rule.getMaxSymptoms() != null) {
+                cap = Math.max(cap, rule.getMaxSymptoms() + 1);
+            }
+        }
+        this.symptomCap = cap;
+
+        Integer[] starts = bandStarts.toArray(new Integer[0]);
+        this.lastBand = starts.length - 1;
+        this.ageBands = new int[starts[lastBand] + 1];
+        for (int band = 0, age = 0; age < ageBands.length; age++) {
+            if (band < lastBand && age >= starts[band + 1]) {
+                band++;
+            }
+            ageBands[age] = band;
+        }
+
+        // Evaluate the rules once for a representative of every cell
+        this.table = new String[starts.length * GENDERS * (symptomCap + 1)];
+        for (int band = 0; band < starts.length; band++) {
+            for (int gender = 0; gender < GENDERS; gender++) {
+                for (int symptoms = 0; symptoms <= symptomCap; symptoms++) {
+                    table[index(band, gender, symptoms)] = evaluateRules(rules, starts[band], gender, symptoms).getFormattedName();
+                }
             }
-            return formattedName.toString();
         }
     }
 
 
-    // Gender constants
-    private static final String MALE = "M";
-    private static final String FEMALE = "F";
-
-
     /**
      * Calculates the level of risk based on the number of symptoms and patient information.
-     * Determines the risk level by checking if the patient is in the early onset, in danger, borderline, or no risk category.
+     * Looks up the precomputed decision table with the patient's age band, gender and number of symptoms.
      *
      * @param nbSymptoms The number of symptoms the patient is experiencing.
      * @param patient The patient object containing information like age and gender.
-     * @return A string representing the calculated risk level (EARLY_ONSET, IN_DANGER, BORDERLINE, NONE).
+     * @return A string representing the calculated risk level (EarlyOnset, InDanger, Borderline, None).
      */
     @Override
     public String levelOfRisk(int nbSymptoms, Patient patient) {
-        int age = AgeCalculator.calculateAge(patient.getDateOfBirth());
-        String gender = patient.getGender();
+        int age = ageCalculator.calculateAge(patient.getDateOfBirth());
+        int band = age <= 0 ? 0 : age < ageBands.length ? ageBands[age] : lastBand;
+        int symptoms = Math.max(0, Math.min(nbSymptoms, symptomCap));
 
-        if (isEarlyOnset(age, nbSymptoms, gender)) {
-            return RiskLevel.EARLY_ONSET.getFormattedName();
-        }
-
-        if (isInDanger(age, nbSymptoms, gender)) {
-            return RiskLevel.IN_DANGER.getFormattedName();
-        }
-
-        if (isBorderline(age, nbSymptoms)) {
-            return RiskLevel.BORDERLINE.getFormattedName();
-        }
+        return table[index(band, genderOf(patient.getGender()), symptoms)];
+    }
 
-        return RiskLevel.NONE.getFormattedName();
+    private int index(int band, int gender, int symptoms) {
+        return (band * GENDERS + gender) * (symptomCap + 1) + symptoms;
     }
 
     /**
-     * Checks if a patient has early onset based on age, number of symptoms, and gender.
+     * Maps the patient's gender to its index in the decision table, using the configured gender codes.
      *
-     * @param age the age of the patient
-     * @param nbSymptoms the number of symptoms the patient has
      * @param gender the gender of the patient
-     * @return true if the patient has early onset, false otherwise
+     * @return MALE, FEMALE or OTHER
      */
-    private boolean isEarlyOnset(int age, int nbSymptoms, String gender) {
-        if (age < 30) {
-            return (MALE.equalsIgnoreCase(gender) && nbSymptoms >= 5) ||
-                    (FEMALE.equalsIgnoreCase(gender) && nbSymptoms >= 7);
-        } else {
-            return nbSymptoms >= 8;
+    private int genderOf(String gender) {
+        for (String code : maleCodes) {
+            if (code.equalsIgnoreCase(gender)) {
+                return MALE;
+            }
+        }
+        for (String code : femaleCodes) {
+            if (code.equalsIgnoreCase(gender)) {
+                return FEMALE;
+            }
         }
+        return OTHER;
     }
 
     /**
-     * Checks if a patient is in danger based on age, number of symptoms, and gender.
+     * Evaluates the rules in order for one combination of age, gender and number of symptoms.
      *
+     * @param rules the configured rules
      * @param age the age of the patient
-     * @param nbSymptoms the number of symptoms the patient is experiencing
-     * @param gender the gender of the patient
-     * @return true if the patient is in danger, false otherwise
+     * @param gender the gender index of the patient
+     * @param nbSymptoms the number of symptoms the patient has
+     * @return the level of the first matching rule, or NONE
      */
-    private boolean isInDanger(int age, int nbSymptoms, String gender) {
-        if (age < 30) {
-            return (MALE.equalsIgnoreCase(gender) && nbSymptoms == 3) ||
-                    (FEMALE.equalsIgnoreCase(gender) && nbSymptoms == 4);
-        } else {
-            return nbSymptoms >= 6 && nbSymptoms <= 7;
+    private static RiskLevel evaluateRules(List<RiskRulesConfig.Rule> rules, int age, int gender, int nbSymptoms) {
+        for (RiskRulesConfig.Rule rule : rules) {
+            if (within(age, rule.getMinAge(), rule.getMaxAge())
+                    && matchesGender(rule.getGender(), gender)
+                    && within(nbSymptoms, rule.getMinSymptoms(), rule.getMaxSymptoms())) {
+                return rule.getLevel();
+            }
         }
+        return RiskLevel.NONE;
     }
 
-    /**
-     * Checks if a patient's risk level is borderline based on age and number of symptoms.
-     *
-     * @param age the age of the patient
-     * @param nbSymptoms the number of symptoms the patient is experiencing
-     * @return true if the risk level is borderline, false otherwise
-     */
-    private boolean isBorderline(int age, int nbSymptoms) {
-        return age >= 30 && nbSymptoms >= 2 && nbSymptoms <= 5;
+    private static boolean within(int value, Integer min, Integer max) {
+        return (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static boolean matchesGender(RiskRulesConfig.Gender ruleGender, int gender) {
+        return switch (ruleGender == null ? RiskRulesConfig.Gender.ANY : ruleGender) {
+            case MALE -> gender == MALE;
+            case FEMALE -> gender == FEMALE;
+            case ANY -> true;
+        };
     }
 }
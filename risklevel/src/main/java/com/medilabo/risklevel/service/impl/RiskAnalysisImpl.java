@@ -1,20 +1,27 @@
 package com.medilabo.risklevel.service.impl;
 
-import com.medilabo.risklevel.model.Note;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medilabo.client.model.Note;
+import com.medilabo.common.util.TriggerScanner;
+import com.medilabo.risklevel.config.NoteTriggerCacheConfig;
 import com.medilabo.risklevel.service.RiskAnalysis;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 
 /**
  * RiskAnalysisImpl class implements the RiskAnalysis interface to provide methods for searching symptoms in notes.
- * Initializes a set of static symptoms and their corresponding patterns for efficient symptom detection.
+ * Initializes a set of static symptoms and compiles them once into a single-pass trigger scanner.
  * The searchForSymptoms method counts the occurrences of symptoms in the provided list of notes.
  * The countSymptomsInNoteContent method counts the occurrences of symptoms in a single note's content.
+ * In incremental mode, the count of each note is kept in a bounded cache keyed by note ID: notes are append-only,
+ * so recomputing a risk level only scans the notes that were not seen before.
+ * Notes fingerprinted at ingest by the note service with the same trigger set are not scanned at all.
+ * Counting allocates nothing once the notes are deserialized (beyond filling the cache with new notes).
  */
 @Service
 public class RiskAnalysisImpl implements RiskAnalysis {
@@ -27,16 +34,28 @@ public class RiskAnalysisImpl implements RiskAnalysis {
     );
 
 
-    // Initializes a set of patterns for symptom matching by streaming the predefined list of symptoms.
-    private static final Set<Pattern> SYMPTOM_PATTERNS = SYMPTOMS.stream()
-            .map(symptom -> Pattern.compile(Pattern.quote(symptom), Pattern.CASE_INSENSITIVE))
-            .collect(Collectors.toSet());
+    // Case- and accent-insensitive automaton matching every symptom in one pass over the note
+    private static final TriggerScanner SYMPTOM_SCANNER = new TriggerScanner(SYMPTOMS);
 
+    // Symptom count per note ID, null when the incremental mode is disabled
+    private final Cache<String, Integer> noteSymptomCounts;
+
+    @Autowired
+    public RiskAnalysisImpl(NoteTriggerCacheConfig noteTriggerCacheConfig) {
+        this.noteSymptomCounts = noteTriggerCacheConfig.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(noteTriggerCacheConfig.getMaximumSize())
+                        .expireAfterAccess(noteTriggerCacheConfig.getExpireAfterAccess())
+                        .build()
+                : null;
+    }
 
     /**
      * Searches for symptoms in the provided list of notes.
      * If the list is empty or null, returns 0.
-     * Counts the occurrences of symptoms in each note's content by calling the 'countSymptomsInNoteContent' method.
+     * Counts the symptoms of each note by calling the 'countSymptomsInNote' method; notes may carry only their content
+     * or only their triggers.
+     * Uses an indexed loop rather than a stream or an iterator, so that nothing is allocated.
      *
      * @param noteList The list of notes to search for symptoms.
      * @return The total count of symptoms found in the notes.
@@ -47,27 +66,64 @@ public class RiskAnalysisImpl implements RiskAnalysis {
             return 0; // Return 0 if the list is null or empty
         }
 
-        return noteList.stream()
-                .filter(note -> note.getNoteContent() != null)
-                .mapToInt(note -> countSymptomsInNoteContent(note.getNoteContent()))
-                .sum();
+        int count = 0;
+        for (int i = 0, size = noteList.size(); i < size; i++) {
+            count += countSymptomsInNote(noteList.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * Returns the version of the symptom set, as computed by the note service for its trigger sets.
+     * Notes fingerprinted with this version are counted from their stored triggers.
+     *
+     * @return the version of the symptom set
+     */
+    @Override
+    public String getTriggerSetVersion() {
+        return SYMPTOM_SCANNER.getVersion();
+    }
+
+
+    /**
+     * Counts the number of distinct symptoms in the given note.
+     * Uses the fingerprint stored with the note when it was computed with the same symptoms,
+     * otherwise reuses the cached count when the note was already scanned. Notes without an ID are always scanned,
+     * and notes with neither matching triggers nor content count no symptom.
+     *
+     * @param note the note to analyze for symptoms
+     * @return the count of symptoms found in the note
+     */
+    private int countSymptomsInNote(Note note) {
+        if (note.getTriggers() != null && SYMPTOM_SCANNER.getVersion().equals(note.getTriggerSetVersion())) {
+            return note.getTriggers().size();
+        }
+        if (note.getNoteContent() == null) {
+            return 0;
+        }
+        if (noteSymptomCounts == null || note.getId() == null) {
+            return countSymptomsInNoteContent(note.getNoteContent());
+        }
+
+        // Lookup then put rather than a capturing loader, to keep cache hits allocation-free
+        Integer cachedCount = noteSymptomCounts.getIfPresent(note.getId());
+        if (cachedCount != null) {
+            return cachedCount;
+        }
+        int count = countSymptomsInNoteContent(note.getNoteContent());
+        noteSymptomCounts.put(note.getId(), count);
+        return count;
     }
 
 
     /**
-     * Counts the number of symptoms in the given note content.
+     * Counts the number of distinct symptoms in the given note content.
+     * The note is scanned once, without copying it, whatever the number of symptoms.
      *
      * @param noteContent the content of the note to analyze for symptoms
      * @return the count of symptoms found in the note content
      */
     private int countSymptomsInNoteContent(String noteContent) {
-        int count = 0;
-        String lowerCaseNoteContent = noteContent.toLowerCase();
-        for (Pattern symptomPattern : SYMPTOM_PATTERNS) {
-            if (symptomPattern.matcher(lowerCaseNoteContent).find()) {
-                count++;
-            }
-        }
-        return count;
+        return SYMPTOM_SCANNER.countDistinctTriggers(noteContent);
     }
 }
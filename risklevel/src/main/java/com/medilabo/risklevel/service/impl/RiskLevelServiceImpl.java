@@ -0,0 +1,162 @@
+package com.medilabo.risklevel.service.impl;
+
+import com.medilabo.client.model.Note;
+import com.medilabo.client.model.Patient;
+import com.medilabo.risklevel.config.RiskLevelBatchConfig;
+import com.medilabo.risklevel.model.RiskLevelResult;
+import com.medilabo.risklevel.service.NoteService;
+import com.medilabo.risklevel.service.PatientService;
+import com.medilabo.risklevel.service.ResultatAnalysis;
+import com.medilabo.risklevel.service.RiskAnalysis;
+import com.medilabo.risklevel.service.RiskLevelService;
+import com.medilabo.risklevel.service.RiskLevelStore;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Service implementation evaluating the risk level of one or many patients.
+ * Patient demographics and notes are fetched concurrently and without blocking, so a single evaluation
+ * takes as long as the slower of the two calls. Batches keep a bounded number of patients in flight
+ * and emit each result as soon as it is available rather than in request order.
+ * Concurrent on-demand requests for the same patient share a single in-flight computation and its result.
+ */
+@Service
+@Log4j2
+public class RiskLevelServiceImpl implements RiskLevelService {
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private ResultatAnalysis resultatAnalysis;
+
+    @Autowired
+    private RiskAnalysis riskAnalysis;
+
+    @Autowired
+    private RiskLevelBatchConfig riskLevelBatchConfig;
+
+    @Autowired
+    private RiskLevelStore riskLevelStore;
+
+    // On-demand computations currently running, by patient ID; an entry is removed as soon as it terminates
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the risk level of a patient, read from the store kept up to date by the patient and note events.
+     * A patient never seen before is evaluated on demand and the result stored for the next reads.
+     * If the store is unavailable, the risk level is evaluated without being stored.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono emitting the risk level of the patient
+     */
+    @Override
+    public Mono<String> getRiskLevel(String patientId) {
+        return riskLevelStore.get(patientId)
+                .onErrorResume(e -> {
+                    log.warn("Risk level store unavailable, evaluating patient ID: {} on demand", patientId, e);
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> inFlight.computeIfAbsent(patientId, this::computeAndStore)));
+    }
+
+    /**
+     * Builds the on-demand computation of a patient's risk level, shared by every request arriving while it runs:
+     * the patient and notes are fetched once, the result is stored once and replayed to all callers, errors included.
+     * The result is not stored if a patient or note event started a newer computation meanwhile.
+     * The entry leaves the in-flight map when the computation terminates, so the next miss starts a fresh one;
+     * it is removed only if it is still this computation, never a newer one registered meanwhile.
+     * The computation keeps running if its callers cancel, and is bounded by the service client timeouts.
+     *
+     * @param patientId the ID of the patient
+     * @return a cached Mono emitting the risk level of the patient
+     */
+    private Mono<String> computeAndStore(String patientId) {
+        AtomicReference<Mono<String>> computation = new AtomicReference<>();
+        // The generation is read before fetching, so the result is not stored over a level computed from newer data
+        Mono<String> cached = riskLevelStore.getGeneration(patientId)
+                .map(Optional::of)
+                .onErrorReturn(Optional.empty())
+                .flatMap(generation -> evaluate(patientId)
+                        .flatMap(riskLevel -> generation
+                                .map(g -> riskLevelStore.put(patientId, g, riskLevel).onErrorResume(e -> Mono.just(false)))
+                                .orElseGet(() -> Mono.just(false))
+                                .thenReturn(riskLevel)))
+                // Removed before the result reaches the callers, so a miss arriving after it starts a new computation
+                .doOnTerminate(() -> inFlight.remove(patientId, computation.get()))
+                .cache();
+        computation.set(cached);
+        return cached;
+    }
+
+    /**
+     * Evaluates the risk level of a single patient.
+     * The patient and the notes are requested concurrently, then analyzed on the parallel scheduler
+     * so that the note scan never runs on an I/O thread.
+     *
+     * @param patientId the ID of the patient to evaluate
+     * @return a Mono emitting the risk level, or an error if the patient cannot be retrieved
+     */
+    @Override
+    public Mono<String> evaluate(String patientId) {
+        Mono<Patient> patient = patientService.getPatient(patientId)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Patient not found: " + patientId)));
+        Mono<List<Note>> notes = noteService.getNoteByPatientId(patientId)
+                .defaultIfEmpty(List.of());
+
+        return Mono.zip(patient, notes)
+                .publishOn(Schedulers.parallel())
+                .map(tuple -> resultatAnalysis.levelOfRisk(riskAnalysis.searchForSymptoms(tuple.getT2()), tuple.getT1()));
+    }
+
+    /**
+     * Evaluates the risk level of every given patient.
+     * Duplicate and null IDs are ignored. At most 'risklevel.batch.concurrency' patients are fetched at the same time;
+     * each one is evaluated through evaluate(String).
+     * A patient that cannot be evaluated produces a result carrying the error instead of failing the whole batch.
+     *
+     * @param patientIds the IDs of the patients to evaluate
+     * @return a Flux emitting one result per distinct patient ID, in completion order
+     */
+    @Override
+    public Flux<RiskLevelResult> evaluateAll(List<String> patientIds) {
+        if (patientIds == null || patientIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return Flux.fromIterable(patientIds)
+                .filter(Objects::nonNull)
+                .distinct()
+                .flatMap(this::evaluateToResult, Math.max(1, riskLevelBatchConfig.getConcurrency()));
+    }
+
+    /**
+     * Evaluates the risk level of a single patient, converting any failure into an error result.
+     *
+     * @param patientId the ID of the patient to evaluate
+     * @return a Mono emitting the result for this patient
+     */
+    private Mono<RiskLevelResult> evaluateToResult(String patientId) {
+        return evaluate(patientId)
+                .map(riskLevel -> RiskLevelResult.success(patientId, riskLevel))
+                .onErrorResume(e -> {
+                    log.warn("Risk level evaluation failed for patient ID: {}", patientId, e);
+                    return Mono.just(RiskLevelResult.failure(patientId, e.getMessage()));
+                });
+    }
+}
@@ -0,0 +1,148 @@
+package com.medilabo.risklevel.service.impl;
+
+import com.medilabo.risklevel.config.RiskLevelStoreConfig;
+import com.medilabo.risklevel.service.RiskLevelStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+
+/**
+ * Service implementation storing the last computed risk level of each patient in Redis.
+ * Values are kept up to date by the patient and note events, so reading one is a single key lookup.
+ * A value expires at the next midnight, as the patient's age and thus their level may change then,
+ * and at most after 'risklevel.store.max-age', so a level missed by a lost event is recomputed.
+ * Each level is stored next to a generation counter, incremented by every patient or note event, as in the notes
+ * cache of the note service. A computation reads or increments the generation before fetching the patient data,
+ * and its result is only stored if the generation did not change meanwhile, so a slower computation started
+ * from older data never overwrites the level stored by a newer one.
+ */
+@Service
+public class RiskLevelStoreImpl implements RiskLevelStore {
+
+    private static final String KEY_PREFIX = "risklevel:patient:";
+
+    // Stores the level only if the generation is still the one the computation started with ('' when absent)
+    private static final RedisScript<Long> PUT = RedisScript.of("""
+            local generation = redis.call('GET', KEYS[2])
+            if (generation or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // Bumps the generation and returns it
+    private static final RedisScript<Long> NEXT_GENERATION = RedisScript.of("""
+            local generation = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return generation
+            """, Long.class);
+
+    // Bumps the generation and drops the level in one step
+    private static final RedisScript<Long> REMOVE = RedisScript.of("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RiskLevelStoreConfig riskLevelStoreConfig;
+
+    @Autowired
+    private Clock clock;
+
+    /**
+     * Reads the stored risk level of a patient.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono emitting the stored risk level, or empty if none was stored yet
+     */
+    @Override
+    public Mono<String> get(String patientId) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + patientId);
+    }
+
+    /**
+     * Reads the generation of a patient's level, to start a computation that does not supersede a running one.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono emitting the current generation, empty string if none
+     */
+    @Override
+    public Mono<String> getGeneration(String patientId) {
+        return redisTemplate.opsForValue().get(generationKey(patientId))
+                .defaultIfEmpty("");
+    }
+
+    /**
+     * Increments the generation of a patient's level, to start a computation superseding the running ones.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono emitting the new generation
+     */
+    @Override
+    public Mono<String> nextGeneration(String patientId) {
+        return redisTemplate.execute(NEXT_GENERATION, List.of(generationKey(patientId)), List.of(generationTtl()))
+                .next()
+                .map(String::valueOf);
+    }
+
+    /**
+     * Stores the risk level of a patient until it expires, unless a computation of a later generation started.
+     *
+     * @param patientId the ID of the patient
+     * @param generation the generation read or incremented before the level was computed
+     * @param riskLevel the risk level to store
+     * @return a Mono emitting true if the value was stored, false if it was superseded
+     */
+    @Override
+    public Mono<Boolean> put(String patientId, String generation, String riskLevel) {
+        return redisTemplate.execute(PUT, List.of(KEY_PREFIX + patientId, generationKey(patientId)),
+                        List.of(generation, riskLevel, String.valueOf(timeToLive().toMillis())))
+                .next()
+                .map(stored -> stored == 1);
+    }
+
+    /**
+     * Removes the stored risk level of a patient, and supersedes the computations running for them.
+     *
+     * @param patientId the ID of the patient
+     * @return a Mono emitting true if a value was removed
+     */
+    @Override
+    public Mono<Boolean> remove(String patientId) {
+        return redisTemplate.execute(REMOVE, List.of(KEY_PREFIX + patientId, generationKey(patientId)), List.of(generationTtl()))
+                .next()
+                .map(removed -> removed > 0);
+    }
+
+    /**
+     * Computes how long a value stored now stays valid: until the next midnight in the clock's zone,
+     * capped to the maximum age.
+     */
+    private Duration timeToLive() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        Duration untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay(now.getZone()));
+        return untilMidnight.compareTo(riskLevelStoreConfig.getMaxAge()) < 0 ? untilMidnight : riskLevelStoreConfig.getMaxAge();
+    }
+
+    // The generation outlives the levels it guards
+    private String generationTtl() {
+        return String.valueOf(riskLevelStoreConfig.getMaxAge().toMillis());
+    }
+
+    private static String generationKey(String patientId) {
+        return KEY_PREFIX + patientId + ":generation";
+    }
+}
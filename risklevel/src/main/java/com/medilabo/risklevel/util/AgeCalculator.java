@@ -1,24 +1,97 @@
 package com.medilabo.risklevel.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.Period;
+import java.time.Month;
+import java.time.Year;
 
 /**
- * Calculates the age based on the given birthDateString string.
- * @return the age calculated from the birthDateString to the current date
+ * Calculates the age based on the given birthDateString string, relative to the current date of the injected clock.
+ * The current date is computed once per day and canonical "yyyy-MM-dd" dates are parsed in place,
+ * so calculating an age allocates nothing.
  */
+@Component
 public class AgeCalculator {
 
-    public static int calculateAge(String birthDateString) {
+    private final Clock clock;
+
+    // Current date, valid until the first millisecond of the next day
+    private volatile Today today;
 
-        LocalDate birthDate = LocalDate.parse(birthDateString);
+    private record Today(int year, int month, int day, long validUntil) {
+    }
 
-        LocalDate currentDate = LocalDate.now();
+    @Autowired
+    public AgeCalculator(Clock clock) {
+        this.clock = clock;
+    }
 
-        if ((birthDate != null) && (currentDate != null)) {
-            return Period.between(birthDate, currentDate).getYears();
+    /**
+     * Calculates the age based on the given birthDateString string.
+     * Like Period.between, a birth date in the future gives a negative age.
+     *
+     * @param birthDateString the birth date, formatted as yyyy-MM-dd
+     * @return the age calculated from the birthDateString to the current date
+     * @throws java.time.format.DateTimeParseException if the birth date is not a valid date
+     */
+    public int calculateAge(String birthDateString) {
+        int birthYear;
+        int birthMonth;
+        int birthDay;
+        if (isCanonicalDate(birthDateString)) {
+            birthYear = digits(birthDateString, 0, 4);
+            birthMonth = digits(birthDateString, 5, 7);
+            birthDay = digits(birthDateString, 8, 10);
         } else {
-            return 0;
+            // Unusual format or invalid date: let LocalDate parse it, or report the error
+            LocalDate birthDate = LocalDate.parse(birthDateString);
+            birthYear = birthDate.getYear();
+            birthMonth = birthDate.getMonthValue();
+            birthDay = birthDate.getDayOfMonth();
+        }
+
+        Today current = today();
+        int birth = birthMonth * 32 + birthDay;
+        int now = current.month() * 32 + current.day();
+        if (birthYear < current.year() || (birthYear == current.year() && birth <= now)) {
+            return current.year() - birthYear - (now < birth ? 1 : 0);
+        }
+        return -(birthYear - current.year() - (birth < now ? 1 : 0));
+    }
+
+    private Today today() {
+        Today current = today;
+        if (current == null || clock.millis() >= current.validUntil()) {
+            LocalDate date = LocalDate.now(clock);
+            long validUntil = date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+            current = new Today(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), validUntil);
+            today = current;
+        }
+        return current;
+    }
+
+    private static boolean isCanonicalDate(String value) {
+        if (value == null || value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return false;
+        }
+        for (int i = 0; i < 10; i++) {
+            if (i != 4 && i != 7 && (value.charAt(i) < '0' || value.charAt(i) > '9')) {
+                return false;
+            }
+        }
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        return month >= 1 && month <= 12 && day >= 1 && day <= Month.of(month).length(Year.isLeap(digits(value, 0, 4)));
+    }
+
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
         }
+        return result;
     }
 }
@@ -0,0 +1,128 @@
+package com.medilabo.risklevel.benchmark;
+
+import com.medilabo.client.model.Note;
+import com.medilabo.client.model.Patient;
+import com.medilabo.common.util.TriggerScanner;
+import com.medilabo.risklevel.config.NoteTriggerCacheConfig;
+import com.medilabo.risklevel.config.RiskRulesConfig;
+import com.medilabo.risklevel.service.impl.ResultatAnalysisImpl;
+import com.medilabo.risklevel.service.impl.RiskAnalysisImpl;
+import com.medilabo.risklevel.util.AgeCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Allocation budget of the risk evaluation hot path: counting the symptoms of already deserialized notes
+ * and looking up the risk level. Runs with the JMH GC profiler and fails when the normalized allocation rate
+ * of any benchmark exceeds the budget (in bytes/op, 'risk.alloc.budget' system property, 1 by default).
+ * The 'benchmark' Maven profile runs it in the integration-test phase, the non-zero exit code failing the build;
+ * run from the risklevel directory with: mvn verify -Pbenchmark [-Drisk.alloc.budget=...]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RiskEvaluationBenchmark {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    // Same symptom set as RiskAnalysisImpl and the note service defaults
+    private static final List<String> SYMPTOMS = List.of(
+            "hémoglobine A1C", "microalbumine", "taille", "poids", "fumeur",
+            "fumeuse", "anormal", "cholestérol", "vertiges", "rechute",
+            "réaction", "anticorps"
+    );
+
+    private static final String[] CONTENTS = {
+            "Le patient déclare qu'il 'se sent très bien' Poids égal ou inférieur au poids recommandé",
+            "Le patient déclare qu'il se sent fatigué pendant la journée Il se plaint également de douleurs musculaires Tests de laboratoire indiquant une microalbumine élevée",
+            "Le patient déclare qu'il ne se sent pas si fatigué que ça Fumeur, il a arrêté dans les 12 mois précédents Tests de laboratoire indiquant que les anticorps sont élevés",
+            "Hémoglobine A1C supérieure au niveau recommandé, taille, poids, cholestérol, vertiges et réaction"
+    };
+
+    // scan: no cache, every note is scanned; cached: counts reused by note ID; fingerprint: counts stored with the notes
+    @Param({"scan", "cached", "fingerprint"})
+    public String mode;
+
+    @Param({"50"})
+    public int noteCount;
+
+    private RiskAnalysisImpl riskAnalysis;
+    private ResultatAnalysisImpl resultatAnalysis;
+    private List<Note> notes;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        NoteTriggerCacheConfig cacheConfig = new NoteTriggerCacheConfig();
+        cacheConfig.setEnabled(!"scan".equals(mode));
+        riskAnalysis = new RiskAnalysisImpl(cacheConfig);
+        resultatAnalysis = new ResultatAnalysisImpl(new RiskRulesConfig(), new AgeCalculator(Clock.systemDefaultZone()));
+
+        notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            Note note = new Note();
+            note.setId("note-" + i);
+            note.setPatientId("1");
+            note.setNoteContent(CONTENTS[i % CONTENTS.length]);
+            notes.add(note);
+        }
+
+        if ("fingerprint".equals(mode)) {
+            // Fingerprint the notes as the note service does at ingest
+            TriggerScanner scanner = new TriggerScanner(SYMPTOMS);
+            for (Note note : notes) {
+                note.setTriggers(scanner.findDistinctTriggers(note.getNoteContent()));
+                note.setTriggerSetVersion(scanner.getVersion());
+            }
+        }
+
+        patient = new Patient();
+        patient.setDateOfBirth("1966-12-31");
+        patient.setGender("F");
+    }
+
+    @Benchmark
+    public String evaluate() {
+        return resultatAnalysis.levelOfRisk(riskAnalysis.searchForSymptoms(notes), patient);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        double budget = Double.parseDouble(System.getProperty("risk.alloc.budget", "1"));
+
+        Options options = new OptionsBuilder()
+                .include(RiskEvaluationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        boolean overBudget = false;
+        for (RunResult runResult : new Runner(options).run()) {
+            Result<?> allocation = runResult.getSecondaryResults().get(ALLOCATION_METRIC);
+            if (allocation == null) {
+                throw new IllegalStateException("GC profiler did not report " + ALLOCATION_METRIC);
+            }
+            if (allocation.getScore() > budget) {
+                System.err.printf("Allocation budget exceeded in %s mode: %.2f bytes/op (budget %.2f)%n",
+                        runResult.getParams().getParam("mode"), allocation.getScore(), budget);
+                overBudget = true;
+            }
+        }
+        if (overBudget) {
+            System.exit(1);
+        }
+    }
+}
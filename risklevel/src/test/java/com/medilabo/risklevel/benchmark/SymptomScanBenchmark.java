@@ -0,0 +1,121 @@
+package com.medilabo.risklevel.benchmark;
+
+import com.medilabo.common.util.TriggerScanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+
+/**
+ * JMH comparison between the former regex loop (one scan per symptom, on a lower-cased copy)
+ * and the single-pass TriggerScanner, over a patient file of long notes.
+ * Run from the risklevel directory with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.medilabo.risklevel.benchmark.SymptomScanBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymptomScanBenchmark {
+
+    private static final Set<String> SYMPTOMS = Set.of(
+            "hémoglobine A1C", "microalbumine", "taille", "poids", "fumeur",
+            "fumeuse", "anormal", "cholestérol", "vertiges", "rechute",
+            "réaction", "anticorps"
+    );
+
+    private static final String[] FILLER = {
+            "Le patient", "déclare", "qu'il", "se sent", "bien", "depuis", "la dernière", "consultation",
+            "tension", "artérielle", "stable", "traitement", "poursuivi", "aucun", "effet", "secondaire",
+            "examen", "clinique", "sans", "particularité", "contrôle", "dans", "trois", "mois"
+    };
+
+    @Param({"12", "200"})
+    public int triggerCount;
+
+    @Param({"100", "400"})
+    public int noteCount;
+
+    @Param({"2000"})
+    public int noteLength;
+
+    private List<Pattern> patterns;
+    private TriggerScanner scanner;
+    private List<String> notes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        List<String> triggers = new ArrayList<>(SYMPTOMS);
+        while (triggers.size() < triggerCount) {
+            triggers.add("marqueur" + triggers.size());
+        }
+
+        patterns = triggers.stream()
+                .map(trigger -> Pattern.compile(Pattern.quote(trigger), Pattern.CASE_INSENSITIVE))
+                .collect(Collectors.toList());
+        scanner = new TriggerScanner(triggers);
+
+        List<String> symptoms = new ArrayList<>(SYMPTOMS);
+        notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            StringBuilder note = new StringBuilder(noteLength + 32);
+            while (note.length() < noteLength) {
+                if (random.nextInt(40) == 0) {
+                    note.append(symptoms.get(random.nextInt(symptoms.size())));
+                } else {
+                    note.append(FILLER[random.nextInt(FILLER.length)]);
+                }
+                note.append(' ');
+            }
+            notes.add(note.toString());
+        }
+
+        if (regexLoop() != scanner()) {
+            throw new IllegalStateException("Regex loop and trigger scanner disagree on the benchmark notes");
+        }
+    }
+
+    @Benchmark
+    public int regexLoop() {
+        int total = 0;
+        for (String note : notes) {
+            String lowerCaseNoteContent = note.toLowerCase();
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(lowerCaseNoteContent).find()) {
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int scanner() {
+        int total = 0;
+        for (String note : notes) {
+            total += scanner.countDistinctTriggers(note);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SymptomScanBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.medilabo.risklevel.service.impl;
+
+import com.medilabo.client.model.Patient;
+import com.medilabo.risklevel.config.RiskRulesConfig;
+import com.medilabo.risklevel.util.AgeCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Differential test of the compiled decision table against the former if-chain implementation.
+ */
+class ResultatAnalysisImplTest {
+
+    private static final String[] GENDERS = {"M", "F", "m", "f", "Male", "Female", "", null};
+
+    // Fixed on the day after a leap day, to cover birthdays on February 29th
+    private static final Clock CLOCK = Clock.fixed(LocalDate.of(2024, 3, 1).atStartOfDay(ZoneId.of("Europe/Paris")).toInstant(),
+            ZoneId.of("Europe/Paris"));
+
+    private final ResultatAnalysisImpl resultatAnalysis = new ResultatAnalysisImpl(new RiskRulesConfig(), new AgeCalculator(CLOCK));
+
+    @Test
+    void defaultRulesMatchLegacyLogic() {
+        LocalDate today = LocalDate.now(CLOCK);
+
+        for (int age = 0; age <= 110; age++) {
+            for (int dayOffset : new int[]{-2, -1, 0, 1}) {
+                String dateOfBirth = today.minusYears(age).plusDays(dayOffset).toString();
+                for (String gender : GENDERS) {
+                    Patient patient = patient(dateOfBirth, gender);
+                    for (int nbSymptoms = -1; nbSymptoms <= 20; nbSymptoms++) {
+                        assertEquals(legacyLevelOfRisk(nbSymptoms, patient), resultatAnalysis.levelOfRisk(nbSymptoms, patient),
+                                () -> "dateOfBirth=" + dateOfBirth + " gender=" + gender);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void resultsArePreBuiltInstances() {
+        Patient patient = patient("1950-01-01", "F");
+
+        assertSame(resultatAnalysis.levelOfRisk(3, patient), resultatAnalysis.levelOfRisk(4, patient));
+    }
+
+    private static Patient patient(String dateOfBirth, String gender) {
+        Patient patient = new Patient();
+        patient.setDateOfBirth(dateOfBirth);
+        patient.setGender(gender);
+        return patient;
+    }
+
+    // Former if-chain implementation, used as the reference
+
+    private static String legacyLevelOfRisk(int nbSymptoms, Patient patient) {
+        int age = Period.between(LocalDate.parse(patient.getDateOfBirth()), LocalDate.now(CLOCK)).getYears();
+        String gender = patient.getGender();
+
+        if (age < 30 ? ("M".equalsIgnoreCase(gender) && nbSymptoms >= 5) || ("F".equalsIgnoreCase(gender) && nbSymptoms >= 7)
+                : nbSymptoms >= 8) {
+            return format("EARLY_ONSET");
+        }
+        if (age < 30 ? ("M".equalsIgnoreCase(gender) && nbSymptoms == 3) || ("F".equalsIgnoreCase(gender) && nbSymptoms == 4)
+                : nbSymptoms >= 6 && nbSymptoms <= 7) {
+            return format("IN_DANGER");
+        }
+        if (age >= 30 && nbSymptoms >= 2 && nbSymptoms <= 5) {
+            return format("BORDERLINE");
+        }
+        return format("NONE");
+    }
+
+    private static String format(String name) {
+        StringBuilder formattedName = new StringBuilder();
+        Arrays.stream(name.toLowerCase().split("_"))
+                .forEach(word -> formattedName.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1)));
+        return formattedName.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package com.medilabo.risklevel.service.impl;
+
+import com.medilabo.client.model.Patient;
+import com.medilabo.risklevel.service.NoteService;
+import com.medilabo.risklevel.service.PatientService;
+import com.medilabo.risklevel.service.ResultatAnalysis;
+import com.medilabo.risklevel.service.RiskAnalysis;
+import com.medilabo.risklevel.service.RiskLevelStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that concurrent on-demand requests for a patient missing from the store share one evaluation.
+ */
+@ExtendWith(MockitoExtension.class)
+class RiskLevelServiceImplTest {
+
+    private static final int CALLERS = 16;
+
+    @Mock
+    private NoteService noteService;
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private ResultatAnalysis resultatAnalysis;
+
+    @Mock
+    private RiskAnalysis riskAnalysis;
+
+    @Mock
+    private RiskLevelStore riskLevelStore;
+
+    @InjectMocks
+    private RiskLevelServiceImpl riskLevelService;
+
+    private final AtomicInteger patientFetches = new AtomicInteger();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+
+        when(riskLevelStore.get("1")).thenReturn(Mono.empty());
+        when(riskLevelStore.getGeneration("1")).thenReturn(Mono.just("3"));
+        when(riskLevelStore.put("1", "3", "None")).thenReturn(Mono.just(true));
+        when(noteService.getNoteByPatientId("1")).thenReturn(Mono.just(List.of()));
+        when(riskAnalysis.searchForSymptoms(List.of())).thenReturn(0);
+        when(resultatAnalysis.levelOfRisk(anyInt(), any())).thenReturn("None");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareASingleEvaluation() throws Exception {
+        Sinks.One<Patient> patient = Sinks.one();
+        when(patientService.getPatient("1")).thenReturn(fetch(patient.asMono()));
+
+        List<CompletableFuture<String>> results = requestConcurrently();
+        // Every caller is waiting on the same pending fetch
+        patient.tryEmitValue(new Patient());
+
+        for (CompletableFuture<String> result : results) {
+            assertEquals("None", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, patientFetches.get());
+        verify(patientService, times(1)).getPatient("1");
+        verify(riskLevelStore, times(1)).put("1", "3", "None");
+    }
+
+    @Test
+    void missAfterTheComputationEndedStartsANewOne() throws Exception {
+        Sinks.One<Patient> first = Sinks.one();
+        when(patientService.getPatient("1")).thenReturn(fetch(first.asMono()), fetch(Mono.just(new Patient())));
+
+        List<CompletableFuture<String>> results = requestConcurrently();
+        first.tryEmitValue(new Patient());
+        for (CompletableFuture<String> result : results) {
+            assertEquals("None", result.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals("None", riskLevelService.getRiskLevel("1").block());
+        assertEquals(2, patientFetches.get());
+        verify(riskLevelStore, times(2)).put("1", "3", "None");
+    }
+
+    /**
+     * Starts CALLERS requests for patient 1 at the same time, from as many threads.
+     */
+    private List<CompletableFuture<String>> requestConcurrently() throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch subscribed = new CountDownLatch(CALLERS);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            results.add(result);
+            executor.execute(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                riskLevelService.getRiskLevel("1").subscribe(result::complete, result::completeExceptionally);
+                subscribed.countDown();
+            });
+        }
+        ready.await();
+        start.countDown();
+        subscribed.await(5, TimeUnit.SECONDS);
+        return results;
+    }
+
+    private Mono<Patient> fetch(Mono<Patient> patient) {
+        return patient.doOnSubscribe(subscription -> patientFetches.incrementAndGet());
+    }
+}